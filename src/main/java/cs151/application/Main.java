@@ -1,13 +1,15 @@
 package cs151.application;
 
+import cs151.controller.services.AsyncDataAccess;
+import cs151.controller.services.ViewRegistry;
+import cs151.data.ConnectionManager;
+import cs151.data.DataCache;
 import cs151.data.DataInitializer;
+import cs151.data.DatabaseProfile;
+import cs151.data.StudentSearchIndex;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 
-import java.io.IOException;
-
 /**
  * Main application class for Student Information Management System
  * Entry point for the JavaFX application
@@ -22,21 +24,40 @@ public class Main extends Application {
      * Loads the home page as the initial view
      * 
      * @param stage The primary stage for this application
-     * @throws IOException If the FXML file cannot be loaded
      */
     @Override
-    public void start(Stage stage) throws IOException {
+    public void start(Stage stage) {
+        // Select the SQLite profile, e.g. --db-profile=durable
+        String profileName = getParameters().getNamed().get("db-profile");
+        if (profileName != null) {
+            ConnectionManager.setProfile(DatabaseProfile.fromName(profileName));
+        }
+
         // Initialize database with predefined data
         DataInitializer.initializeData();
         
-        FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("hello-view.fxml"));
-        Scene scene = new Scene(fxmlLoader.load(), 900, 800);
-        stage.setTitle("Student Information Management System");
-        stage.setScene(scene);
+        ViewRegistry.show(stage, ViewRegistry.View.HOME);
         stage.setResizable(true);
         stage.setMinWidth(800);
         stage.setMinHeight(700);
         stage.show();
+
+        // Read the other views and build Search and Reports once the home page is on screen
+        ViewRegistry.preload(stage);
+    }
+
+    /**
+     * Called when the application exits
+     * Stops background data calls, prints the cache counters and closes the pooled database connections
+     */
+    @Override
+    public void stop() {
+        AsyncDataAccess.shutdown();
+        System.out.println(DataCache.getStats());
+        System.out.println(ConnectionManager.getStatementCacheStats());
+        System.out.println(StudentSearchIndex.getInstance().getQueryCacheStats());
+        System.out.println(ViewRegistry.getStats());
+        ConnectionManager.shutdown();
     }
 
     /**
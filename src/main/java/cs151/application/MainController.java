@@ -1,8 +1,10 @@
 package cs151.application;
 
+import cs151.controller.services.ViewRegistry;
+import cs151.controller.services.ViewRegistry.View;
+import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
+import javafx.scene.Node;
 import javafx.stage.Stage;
 
 /**
@@ -16,26 +18,8 @@ public class MainController {
      * Triggered when user clicks the "Define Programming Languages" button
      */
     @FXML
-    protected void onLanguagesButtonClick(javafx.event.ActionEvent event) {
-        try {
-            // Get the current stage from the event source
-            javafx.scene.Node source = (javafx.scene.Node) event.getSource();
-            Stage stage = (Stage) source.getScene().getWindow();
-            
-            // Load the languages view
-            FXMLLoader fxmlLoader = new FXMLLoader(
-                Main.class.getResource("/cs151/application/languages-view.fxml")
-            );
-            Scene scene = new Scene(fxmlLoader.load(), 900, 800);
-            
-            // Set the new scene
-            stage.setTitle("Define Programming Languages");
-            stage.setScene(scene);
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error loading languages page: " + e.getMessage());
-        }
+    protected void onLanguagesButtonClick(ActionEvent event) {
+        ViewRegistry.show(stageOf(event), View.LANGUAGES);
     }
     
     /**
@@ -43,49 +27,13 @@ public class MainController {
      * Triggered when user clicks the "Manage Students" button
      */
     @FXML
-    protected void onStudentsButtonClick(javafx.event.ActionEvent event) {
-        try {
-            // Get the current stage from the event source
-            javafx.scene.Node source = (javafx.scene.Node) event.getSource();
-            Stage stage = (Stage) source.getScene().getWindow();
-            
-            // Load the students view
-            FXMLLoader fxmlLoader = new FXMLLoader(
-                Main.class.getResource("/cs151/application/students-view.fxml")
-            );
-            Scene scene = new Scene(fxmlLoader.load(), 1200, 900);
-            
-            // Set the new scene
-            stage.setTitle("Student Management");
-            stage.setScene(scene);
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error loading students page: " + e.getMessage());
-        }
+    protected void onStudentsButtonClick(ActionEvent event) {
+        ViewRegistry.show(stageOf(event), View.STUDENTS);
     }
 
     @FXML
-    protected void onSearchButtonClick(javafx.event.ActionEvent event) {
-        try {
-            // Get the current stage from the event source
-            javafx.scene.Node source = (javafx.scene.Node) event.getSource();
-            Stage stage = (Stage) source.getScene().getWindow();
-
-            // Load the students view
-            FXMLLoader fxmlLoader = new FXMLLoader(
-                    Main.class.getResource("/cs151/application/search-view.fxml")
-            );
-            Scene scene = new Scene(fxmlLoader.load(), 1150, 800);
-
-            // Set the new scene
-            stage.setTitle("Search Students");
-            stage.setScene(scene);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error loading students page: " + e.getMessage());
-        }
+    protected void onSearchButtonClick(ActionEvent event) {
+        ViewRegistry.show(stageOf(event), View.SEARCH);
     }
     
     /**
@@ -93,25 +41,14 @@ public class MainController {
      * Triggered when user clicks the "View Reports" button
      */
     @FXML
-    protected void onReportsButtonClick(javafx.event.ActionEvent event) {
-        try {
-            // Get the current stage from the event source
-            javafx.scene.Node source = (javafx.scene.Node) event.getSource();
-            Stage stage = (Stage) source.getScene().getWindow();
-
-            // Load the reports view
-            FXMLLoader fxmlLoader = new FXMLLoader(
-                    Main.class.getResource("/cs151/application/reports-view.fxml")
-            );
-            Scene scene = new Scene(fxmlLoader.load(), 1150, 800);
-
-            // Set the new scene
-            stage.setTitle("Student Reports");
-            stage.setScene(scene);
+    protected void onReportsButtonClick(ActionEvent event) {
+        ViewRegistry.show(stageOf(event), View.REPORTS);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error loading reports page: " + e.getMessage());
-        }
+    /**
+     * The window the clicked button is in
+     */
+    private Stage stageOf(ActionEvent event) {
+        return (Stage) ((Node) event.getSource()).getScene().getWindow();
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,10 @@
 package cs151.controller;
 
 import cs151.application.Main;
+import cs151.controller.cells.CommentCell;
 import cs151.controller.services.ActionsHandler;
+import cs151.controller.services.AsyncDataAccess;
+import cs151.controller.services.CommentPageLoader;
 import cs151.controller.services.CommentsActionsHandler;
 import cs151.controller.services.NavigationHandler;
 import cs151.data.CommentDAO;
@@ -9,17 +12,13 @@ import cs151.model.Comment;
 import cs151.model.Student;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
-import javafx.geometry.Insets;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 /**
  * Controller for the Comments View
@@ -37,7 +36,7 @@ public class CommentsController {
     private Label commentCountLabel;
     
     @FXML
-    private VBox commentsContainer;
+    private ListView<Comment> commentsList;
     
     @FXML
     private TextArea newCommentArea;
@@ -54,6 +53,7 @@ public class CommentsController {
     private CommentDAO commentDao;
     private Student currentStudent;
     private ActionsHandler<Comment> actionsHandler;
+    private CommentPageLoader pageLoader;
     private Stage mainStage;
 
     /**
@@ -70,6 +70,16 @@ public class CommentsController {
         LocalDate today = LocalDate.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
         todayDateLabel.setText(today.format(formatter));
+
+        commentsList.setCellFactory(CommentCell.forComments(this::handleDeleteComment));
+        Label emptyLabel = new Label("No comments yet. Add the first evaluation comment below.");
+        emptyLabel.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 14px; -fx-padding: 20;");
+        commentsList.setPlaceholder(emptyLabel);
+
+        // The loader inserts and removes single rows as comments are added or deleted, here or elsewhere
+        pageLoader = new CommentPageLoader(commentDao, commentsList);
+        pageLoader.setOnCountChanged(count ->
+                commentCountLabel.setText("(" + count + " comment" + (count != 1 ? "s" : "") + ")"));
     }
     
     /**
@@ -84,68 +94,13 @@ public class CommentsController {
     }
     
     /**
-     * Load and display all comments for the current student
+     * Load the newest page of the current student's comments; older ones load as the list is scrolled
      */
     private void loadComments() {
         if (currentStudent == null) {
             return;
         }
-        
-        List<Comment> comments = commentDao.getCommentsByStudentId(currentStudent.getId());
-        
-        // Update comment count
-        commentCountLabel.setText("(" + comments.size() + " comment" + (comments.size() != 1 ? "s" : "") + ")");
-        
-        // Clear existing comments
-        commentsContainer.getChildren().clear();
-        
-        if (comments.isEmpty()) {
-            Label emptyLabel = new Label("No comments yet. Add the first evaluation comment below.");
-            emptyLabel.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 14px; -fx-padding: 20;");
-            commentsContainer.getChildren().add(emptyLabel);
-        } else {
-            // Display each comment
-            for (Comment comment : comments) {
-                VBox commentBox = createCommentBox(comment);
-                commentsContainer.getChildren().add(commentBox);
-            }
-        }
-    }
-    
-    /**
-     * Create a visual box for displaying a comment
-     * @param comment The comment to display
-     * @return VBox containing the comment
-     */
-    private VBox createCommentBox(Comment comment) {
-        VBox box = new VBox(8);
-        box.setStyle("-fx-background-color: #f8f9fa; -fx-padding: 15; -fx-border-color: #dee2e6; " +
-                "-fx-border-width: 1; -fx-border-radius: 5; -fx-background-radius: 5;");
-
-        HBox headerBox = new HBox();
-        headerBox.setSpacing(10);
-        headerBox.setStyle("-fx-alignment: center-left; -fx-padding: 0 0 5 0;");
-
-        Label dateLabel = new Label("📅 " + comment.getDateAsString());
-        dateLabel.setStyle("-fx-text-fill: #7f8c8d; -fx-font-size: 12px; -fx-font-weight: normal;");
-
-        Button deleteBtn = new Button("Delete");
-        deleteBtn.setStyle("-fx-background-color: #e74c3c; -fx-text-fill: white; -fx-font-size: 12px; " +
-                "-fx-padding: 5 15; -fx-background-radius: 3; -fx-cursor: hand;");
-        deleteBtn.setOnAction(e -> handleDeleteComment(comment));
-
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-        headerBox.getChildren().addAll(dateLabel, spacer, deleteBtn);
-
-        // Comment text
-        Label contentLabel = new Label(comment.getContent());
-        contentLabel.setWrapText(true);
-        contentLabel.setStyle("-fx-text-fill: #2c3e50; -fx-font-size: 16px;");
-
-        box.getChildren().addAll(headerBox, contentLabel);
-
-        return box;
+        pageLoader.load(currentStudent.getId());
     }
 
     /**
@@ -170,15 +125,19 @@ public class CommentsController {
         Comment newComment = new Comment(currentStudent.getId(), content);
         
         // Save to database
-        boolean success = commentDao.addComment(newComment);
-        
-        if (success) {
-            showMessage("Comment added successfully!", "success");
-            newCommentArea.clear();
-            loadComments(); // Refresh the comments list
-        } else {
-            showMessage("Failed to add comment. Please try again.", "error");
-        }
+        addCommentButton.setDisable(true);
+        AsyncDataAccess.load(() -> commentDao.addComment(newComment), success -> {
+            addCommentButton.setDisable(false);
+            if (success) {
+                showMessage("Comment added successfully!", "success");
+                newCommentArea.clear();
+            } else {
+                showMessage("Failed to add comment. Please try again.", "error");
+            }
+        }, error -> {
+            addCommentButton.setDisable(false);
+            showMessage("Failed to add comment: " + error.getMessage(), "error");
+        });
     }
     
     /**
@@ -186,13 +145,13 @@ public class CommentsController {
      * @param comment The comment to delete
      */
     private void handleDeleteComment(Comment comment) {
-        boolean deleted = actionsHandler.handleDelete(comment);
+        AsyncDataAccess.onFxThread(actionsHandler.handleDelete(comment), deleted -> {
             if (deleted) {
                 showMessage("Comment deleted successfully!", "success");
-                loadComments();
             } else {
                 showMessage("Failed to delete comment.", "error");
             }
+        }, error -> showMessage("Failed to delete comment: " + error.getMessage(), "error"));
     }
     
     /**
@@ -220,9 +179,10 @@ public class CommentsController {
     @FXML
     private void handleBackToHome() {
         NavigationHandler nav =  new NavigationHandler();
-            Stage stage = (Stage) addCommentButton.getScene().getWindow();
-            stage.close();
-            nav.goToHome(mainStage);
+        Stage stage = (Stage) addCommentButton.getScene().getWindow();
+        stage.close();
+        // This is a pop-up; Home is shown on the main window it was opened from
+        if (mainStage != null) nav.goToHome(mainStage);
     }
     
     /**
@@ -239,4 +199,3 @@ public class CommentsController {
         }
     }
 }
-
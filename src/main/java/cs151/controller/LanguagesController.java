@@ -1,7 +1,12 @@
 package cs151.controller;
 
+import cs151.controller.cells.ActionButtonsCell;
+import cs151.controller.services.AsyncDataAccess;
+import cs151.controller.services.DataChangeSubscriber;
 import cs151.controller.services.NavigationHandler;
+import cs151.data.DataChange;
 import cs151.data.LanguageDAO;
+import cs151.data.LanguageMaintenance;
 import cs151.model.Language;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -11,6 +16,8 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
+import java.util.List;
+
 /**
  * Controller for the Define Programming Languages page
  * Handles CRUD operations for programming languages
@@ -41,6 +48,7 @@ public class LanguagesController {
     // Observable list to hold languages
     // private ObservableList<Language> languagesList = FXCollections.observableArrayList(); ************
     private final LanguageDAO dao = new LanguageDAO();
+    private final LanguageMaintenance maintenance = new LanguageMaintenance();
     private ObservableList<Language> languagesList;
 
     
@@ -57,41 +65,16 @@ public class LanguagesController {
         nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
         
         // Set up the actions column with Edit and Delete buttons
-        actionsColumn.setCellFactory(param -> new TableCell<>() {
-            private final Button editButton = new Button("Edit");
-            private final Button deleteButton = new Button("Delete");
-            
-            {
-                editButton.setOnAction(event -> {
-                    Language language = getTableView().getItems().get(getIndex());
-                    handleEdit(language);
-                });
-                
-                deleteButton.setOnAction(event -> {
-                    Language language = getTableView().getItems().get(getIndex());
-                    handleDelete(language);
-                });
-                
-                editButton.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-size: 14px; -fx-padding: 8 16; -fx-cursor: hand;");
-                deleteButton.setStyle("-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-size: 14px; -fx-padding: 8 16; -fx-cursor: hand;");
-            }
-            
-            @Override
-            protected void updateItem(Void item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty) {
-                    setGraphic(null);
-                } else {
-                    javafx.scene.layout.HBox buttons = new javafx.scene.layout.HBox(5);
-                    buttons.getChildren().addAll(editButton, deleteButton);
-                    setGraphic(buttons);
-                }
-            }
-        });
+        actionsColumn.setCellFactory(ActionButtonsCell.forActions(List.of(
+                new ActionButtonsCell.Action<>("Edit", "button-green", this::handleEdit),
+                new ActionButtonsCell.Action<>("Delete", "button-red", this::handleDelete))));
         
-        // Load from SQLite
-        dao.initTable(); // Ensure Language table exists
-        languagesList = FXCollections.observableArrayList(dao.getAllLanguages());
+        // Load from SQLite in the background; the table fills in when the query returns
+        languagesList = FXCollections.observableArrayList();
+        AsyncDataAccess.load(() -> {
+            dao.initTable(); // Ensure Language table exists
+            return dao.getAllLanguages();
+        }, languagesList::setAll, error -> showMessage("Could not load languages: " + error.getMessage(), "error"));
         
         // Wrap the list into a sorted list
         SortedList<Language> sortedList = new SortedList<>(languagesList);
@@ -115,6 +98,18 @@ public class LanguagesController {
         languageNameField.textProperty().addListener((obs, oldVal, newVal) -> {
             messageLabel.setText("");
         });
+
+        // Every add, rename, merge or delete (from this window or another) is published; reload the short list then
+        DataChangeSubscriber.subscribe(languagesTable, change -> {
+            if (change instanceof DataChange.LanguageChanged) reloadLanguages();
+        });
+    }
+
+    private void reloadLanguages() {
+        AsyncDataAccess.load(dao::getAllLanguages, languages -> {
+            languagesList.setAll(languages);
+            languagesTable.sort();
+        }, error -> showMessage("Could not load languages: " + error.getMessage(), "error"));
     }
 
     @FXML
@@ -126,18 +121,26 @@ public class LanguagesController {
             return;
         }
 
-        if (dao.isLanguageExists(languageName)) {
-            showMessage("Language '" + languageName + "' already exists!", "error");
-            return;
-        }
+        // Check and save in the background; the list reloads when the new language is published
+        saveButton.setDisable(true);
+        AsyncDataAccess.load(() -> {
+            if (dao.isLanguageExists(languageName)) return false;
+            dao.saveLanguage(languageName);
+            return true;
+        }, saved -> {
+            saveButton.setDisable(false);
+            if (!saved) {
+                showMessage("Language '" + languageName + "' already exists!", "error");
+                return;
+            }
 
-        dao.saveLanguage(languageName);
-        languagesList.setAll(dao.getAllLanguages()); // Refresh list from DB
-        languagesTable.sort();
-        
-        // Clear the input field
-        languageNameField.clear();
-        showMessage("Language '" + languageName + "' added successfully!", "success");
+            // Clear the input field
+            languageNameField.clear();
+            showMessage("Language '" + languageName + "' added successfully!", "success");
+        }, error -> {
+            saveButton.setDisable(false);
+            showMessage("Could not save language: " + error.getMessage(), "error");
+        });
     }
 
     /**
@@ -151,8 +154,8 @@ public class LanguagesController {
         dialog.setHeaderText("Edit Programming Language");
         dialog.setContentText("Language Name:");
 
-        dialog.showAndWait().ifPresent(newName -> {
-            newName = newName.trim();
+        dialog.showAndWait().ifPresent(input -> {
+            String newName = input.trim();
 
             if (newName.isEmpty()) {
                 showMessage("Language name cannot be empty!", "error");
@@ -160,15 +163,25 @@ public class LanguagesController {
             }
 
             if ((language.getName() == null || !newName.equalsIgnoreCase(language.getName()))
-                    && dao.isLanguageExists(newName)) {
-                showMessage("Language '" + newName + "' already exists!", "error");
-                return;
+                    && isLanguageExists(newName)) {
+                // Renaming onto an existing language merges the two
+                Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+                confirm.setTitle("Merge Languages");
+                confirm.setHeaderText("Language '" + newName + "' already exists");
+                confirm.setContentText("Merge '" + language.getName() + "' into '" + newName
+                        + "'? Students who know '" + language.getName() + "' will be moved over.");
+                if (confirm.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) {
+                    return;
+                }
             }
 
-
-            dao.updateLanguage(language.getId(), newName);
-            languagesList.setAll(dao.getAllLanguages()); // Refresh list
-            showMessage("Language updated successfully!", "success");
+            AsyncDataAccess.load(() -> maintenance.rename(language.getId(), newName), changed -> {
+                if (changed > 0) {
+                    showMessage("Language updated successfully!", "success");
+                } else {
+                    showMessage("Language could not be updated.", "error");
+                }
+            }, error -> showMessage("Language could not be updated: " + error.getMessage(), "error"));
         });
     }
 
@@ -185,9 +198,18 @@ public class LanguagesController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                dao.deleteLanguage(language.getId());
-                languagesList.setAll(dao.getAllLanguages()); // Refresh list
-                showMessage("Language '" + language.getName() + "' deleted successfully!", "success");
+                // Rows removed = the language itself plus one per student that had it
+                AsyncDataAccess.load(() -> maintenance.delete(language.getId()), removed -> {
+                    if (removed > 0) {
+                        languagesList.remove(language);
+                        int students = removed - 1;
+                        showMessage("Language '" + language.getName() + "' deleted successfully"
+                                + (students > 0 ? " (removed from " + students + " student" + (students != 1 ? "s" : "") + ")" : "")
+                                + "!", "success");
+                    } else {
+                        showMessage("Language could not be deleted.", "error");
+                    }
+                }, error -> showMessage("Language could not be deleted: " + error.getMessage(), "error"));
             }
         });
     }
@@ -195,11 +217,12 @@ public class LanguagesController {
     
     /**
      * Checks if a language with the given name already exists
+     * Uses the loaded list, which is reloaded after every published language change, so the FX thread never waits on the database
      * @param name The language name to check
      * @return true if exists, false otherwise
      */
     private boolean isLanguageExists(String name) {
-        return dao.isLanguageExists(name);
+        return languagesList.stream().anyMatch(language -> name.equalsIgnoreCase(language.getName()));
     }
 
     
@@ -1,22 +1,26 @@
 package cs151.controller;
 
-import cs151.application.Main;
+import cs151.controller.cells.FlagCell;
 import cs151.controller.services.ActionsHandler;
 import cs151.controller.services.NavigationHandler;
 import cs151.controller.services.ReportsActionsHandler;
+import cs151.controller.services.StudentPageLoader;
+import cs151.controller.services.ViewRegistry;
+import cs151.data.DataExporter;
 import cs151.data.StudentDAO;
+import cs151.data.StudentQuery;
 import cs151.model.Student;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Controller for Reports View
@@ -36,6 +40,15 @@ public class ReportsController {
     @FXML
     private RadioButton allRadio;
 
+    @FXML
+    private ComboBox<String> statusFilterCombo;
+
+    @FXML
+    private ComboBox<String> roleFilterCombo;
+
+    @FXML
+    private CheckBox noCommentsCheckBox;
+
     @FXML
     private TableView<Student> studentsTable;
 
@@ -57,10 +70,25 @@ public class ReportsController {
     @FXML
     private TableColumn<Student, String> flagColumn;
 
+    @FXML
+    private TableColumn<Student, String> commentCountColumn;
+
+    @FXML
+    private TableColumn<Student, String> lastCommentColumn;
+
     @FXML
     private Label countLabel;
 
+    @FXML
+    private Button exportButton;
+
+    @FXML
+    private Label exportStatusLabel;
+
+    private static final String ANY = "Any";
+
     private final StudentDAO studentDao = new StudentDAO();
+    private StudentPageLoader pageLoader;
     private ToggleGroup filterGroup;
     private final ActionsHandler<Student> actionsHandler = new ReportsActionsHandler(studentDao);
 
@@ -72,6 +100,14 @@ public class ReportsController {
         blacklistRadio.setToggleGroup(filterGroup);
         allRadio.setToggleGroup(filterGroup);
 
+        // Academic status and role filters, combined with the flag filter
+        statusFilterCombo.setItems(FXCollections.observableArrayList(
+                ANY, "Freshman", "Sophomore", "Junior", "Senior", "Graduate"));
+        statusFilterCombo.setValue(ANY);
+        roleFilterCombo.setItems(FXCollections.observableArrayList(
+                ANY, "Front-End", "Back-End", "Full-Stack", "Data", "Other"));
+        roleFilterCombo.setValue(ANY);
+
         // Initialize table columns
         nameColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getName()));
         academicStatusColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getAcademicStatus()));
@@ -79,27 +115,14 @@ public class ReportsController {
         dbSkillsColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getDbSkills()));
         roleColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getRole()));
         flagColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getFlag()));
+        // Stored with the student, so showing them does not load any comments
+        commentCountColumn.setCellValueFactory(data -> new SimpleStringProperty(
+                String.valueOf(data.getValue().getCommentCount())));
+        lastCommentColumn.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().getLastCommentDate() == null ? "" : data.getValue().getLastCommentDate().toString()));
 
         // Style flag column
-        flagColumn.setCellFactory(column -> new TableCell<Student, String>() {
-            @Override
-            protected void updateItem(String item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || item == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(item);
-                    if ("Whitelist".equals(item)) {
-                        setStyle("-fx-text-fill: #27ae60; -fx-font-weight: bold;");
-                    } else if ("Blacklist".equals(item)) {
-                        setStyle("-fx-text-fill: #e74c3c; -fx-font-weight: bold;");
-                    } else {
-                        setStyle("");
-                    }
-                }
-            }
-        });
+        flagColumn.setCellFactory(FlagCell.forFlags());
 
         // Handle double-click on row to show detailed profile
         studentsTable.setRowFactory(tv -> {
@@ -113,12 +136,18 @@ public class ReportsController {
             return row;
         });
 
+        // Students are fetched a page at a time as the table scrolls
+        pageLoader = new StudentPageLoader(studentDao, studentsTable);
+        pageLoader.setOnTotalCountChanged(total ->
+                countLabel.setText("Total: " + total + " student" + (total != 1 ? "s" : "")));
+
         // Load all students by default
         loadStudents("All");
     }
 
     @FXML
     private void onFilterChange() {
+        if (pageLoader == null) return; // combo values set during initialize()
         RadioButton selected = (RadioButton) filterGroup.getSelectedToggle();
         if (selected == whitelistRadio) {
             loadStudents("Whitelist");
@@ -130,20 +159,90 @@ public class ReportsController {
     }
 
     private void loadStudents(String filter) {
-        List<Student> allStudents = studentDao.getAllStudentsSortedByName();
-        List<Student> filteredStudents;
+        // Filters run in SQL on indexed columns and only the columns shown are read,
+        // so a filter change is one page query plus one COUNT(*)
+        StudentQuery query = StudentQuery.all()
+                .withFlag("All".equals(filter) ? null : filter)
+                .withAcademicStatus(valueOrNull(statusFilterCombo))
+                .withRole(valueOrNull(roleFilterCombo))
+                .withCommentCount(noCommentsCheckBox.isSelected() ? 0 : null)
+                .summaryColumns();
+        pageLoader.setQuery(query);
+    }
 
-        if ("All".equals(filter)) {
-            filteredStudents = allStudents;
-        } else {
-            filteredStudents = allStudents.stream()
-                    .filter(s -> filter.equals(s.getFlag()))
-                    .collect(Collectors.toList());
-        }
+    private String valueOrNull(ComboBox<String> combo) {
+        String value = combo.getValue();
+        return value == null || ANY.equals(value) ? null : value;
+    }
 
-        studentsTable.setItems(FXCollections.observableArrayList(filteredStudents));
-        countLabel.setText("Total: " + filteredStudents.size() + " student" + 
-                          (filteredStudents.size() != 1 ? "s" : ""));
+    /**
+     * Export students or comments to a CSV / JSON-lines file
+     * The export streams rows on a background thread so the table stays responsive
+     */
+    @FXML
+    private void onExportButtonClick() {
+        ChoiceDialog<String> datasetDialog = new ChoiceDialog<>("Students", "Students", "Comments");
+        datasetDialog.setTitle("Export");
+        datasetDialog.setHeaderText("Choose what to export");
+        datasetDialog.setContentText("Data:");
+        Optional<String> choice = datasetDialog.showAndWait();
+        if (choice.isEmpty()) return;
+
+        DataExporter.Dataset dataset = "Comments".equals(choice.get())
+                ? DataExporter.Dataset.COMMENTS : DataExporter.Dataset.STUDENTS;
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export " + choice.get());
+        chooser.setInitialFileName(choice.get().toLowerCase() + ".csv");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON Lines (*.jsonl)", "*.jsonl"));
+        File file = chooser.showSaveDialog(exportButton.getScene().getWindow());
+        if (file == null) return;
+
+        DataExporter.Format format = DataExporter.Format.fromFileName(file.getName());
+        Task<Long> exportTask = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                return new DataExporter().export(dataset, format, file.toPath(),
+                        rows -> updateMessage("Exported " + rows + " rows..."));
+            }
+        };
+
+        exportButton.setDisable(true);
+        exportStatusLabel.textProperty().bind(exportTask.messageProperty());
+        exportTask.setOnSucceeded(e -> {
+            exportStatusLabel.textProperty().unbind();
+            exportStatusLabel.setText("Exported " + exportTask.getValue() + " rows to " + file.getName());
+            exportButton.setDisable(false);
+        });
+        exportTask.setOnFailed(e -> {
+            exportStatusLabel.textProperty().unbind();
+            exportStatusLabel.setText("");
+            exportButton.setDisable(false);
+            exportTask.getException().printStackTrace();
+            showAlert("Export Failed", "Could not export data: " + exportTask.getException().getMessage());
+        });
+
+        Thread thread = new Thread(exportTask, "data-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Open the statistics dashboard in its own window
+     */
+    @FXML
+    private void onStatisticsButtonClick() {
+        try {
+            Stage stage = new Stage();
+            stage.setScene(ViewRegistry.load(ViewRegistry.View.STATISTICS).scene());
+            stage.setTitle(ViewRegistry.View.STATISTICS.getTitle());
+            stage.show();
+        } catch (IOException e) {
+            e.printStackTrace();
+            showAlert("Error", "Failed to load statistics.");
+        }
     }
 
     @FXML
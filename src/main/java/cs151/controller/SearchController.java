@@ -1,19 +1,28 @@
 package cs151.controller;
 
 import cs151.application.Main;
+import cs151.controller.cells.ActionButtonsCell;
 import cs151.controller.services.ActionsHandler;
+import cs151.controller.services.AsyncDataAccess;
+import cs151.controller.services.DataChangeSubscriber;
+import cs151.controller.services.Debouncer;
 import cs151.controller.services.NavigationHandler;
 import cs151.controller.services.StudentsActionsHandler;
+import cs151.data.DataChange;
+import cs151.data.SearchDAO;
 import cs151.data.StudentDAO;
+import cs151.model.SearchHit;
 import cs151.model.Student;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.layout.HBox;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.stage.Stage;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class SearchController {
 
@@ -38,24 +47,52 @@ public class SearchController {
     @FXML
     private TableColumn<Student, String> roleColumn;
 
+    @FXML
+    private TableColumn<Student, String> matchColumn;
+
     @FXML
     private TableColumn<Student, Void> actionsColumn;
 
     @FXML
     private TableColumn<Student, Void> commentColumn;
 
+    @FXML
+    private CheckBox inMemoryCheckBox;
+
     @FXML
     private Button backButton;
 
     @FXML
     private Label messageLabel;
 
+    private static final int MAX_RESULTS = 200;
+    // Wait this long after the last keystroke before searching, configurable with -Dcs151.search.debounceMs
+    private static final long DEBOUNCE_MILLIS = Long.getLong("cs151.search.debounceMs", 250);
+
     private final StudentDAO studentDao = new StudentDAO();
+    private final SearchDAO searchDao = new SearchDAO();
     private final ActionsHandler<Student> actionsHandler = new StudentsActionsHandler(studentDao);
 
+    // Highlighted excerpt of why each student in the table matched
+    private Map<Integer, String> snippets = new HashMap<>();
+
+    // Live search pipeline: keystrokes are debounced, then at most one search runs at a time.
+    // The one still running is cancelled when a newer one starts, and only the latest result is shown.
+    private final Debouncer searchDebouncer = new Debouncer(DEBOUNCE_MILLIS);
+    private CompletableFuture<SearchResults> pendingSearch;
+    private long searchGeneration;
+    private String lastQuery; // query (and mode) of the results on screen or on the way
+
+    /**
+     * Students found by one search, with the excerpt of why each matched
+     */
+    private record SearchResults(List<Student> students, Map<Integer, String> snippets) {
+    }
+
     @FXML
     public void initialize() {
         studentDao.initTable();
+        searchDao.initTable();
 
         // Initialize data columns
         nameColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getName()));
@@ -63,6 +100,7 @@ public class SearchController {
         languagesColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getLanguagesAsString()));
         dbSkillsColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getDbSkills()));
         roleColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getRole()));
+        matchColumn.setCellValueFactory(data -> new SimpleStringProperty(snippets.get(data.getValue().getId())));
 
         // Add action column to hold Delete
         addActionColumnToTable();
@@ -76,110 +114,154 @@ public class SearchController {
         studentTable.setPlaceholder(placeholder);
 
 
-        // Live search: Results appear as user type
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchStudents(newVal));
+        // Live search: Results appear shortly after the user stops typing
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchLater());
+        searchField.setOnAction(event -> searchDebouncer.flush()); // Enter searches right away
+        inMemoryCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> searchNow());
+
+        // Keep the rows on screen current when students change here or in another window
+        DataChangeSubscriber.subscribe(studentTable, this::onDataChange);
     }
 
-    private void addActionColumnToTable() {
-        actionsColumn.setCellFactory(column -> new TableCell<>() {
-            private final Button viewBtn = new Button("View");
-            private final Button deleteBtn = new Button("Delete");
-
-            {
-                viewBtn.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-size: 12px; -fx-padding: 5 8;");
-                deleteBtn.setStyle("-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-size: 12px; -fx-padding: 5 8;");
-
-                // Handle view action
-                viewBtn.setOnAction(event -> actionsHandler.handleView(getCurrentStudent(), null));
-
-                // Handle delete action
-                deleteBtn.setOnAction(event -> {
-                    boolean deleted = actionsHandler.handleDelete(getCurrentStudent());
-                    if (deleted) searchStudents(searchField.getText());
-                });
+    /**
+     * Patch the shown results for a change: the affected row is replaced or removed, the
+     * search itself is not run again. New students appear the next time the user searches.
+     */
+    private void onDataChange(DataChange change) {
+        List<Student> rows = studentTable.getItems();
+        switch (change) {
+            case DataChange.StudentUpdated updated -> {
+                int index = indexOf(updated.student().getId());
+                if (index >= 0) rows.set(index, new Student(updated.student())); // keep our own copy
             }
-
-            private Student getCurrentStudent() {
-                return getTableView().getItems().get(getIndex());
+            case DataChange.StudentDeleted deleted -> {
+                int index = indexOf(deleted.studentId());
+                if (index >= 0) rows.remove(index);
+                if (rows.isEmpty() && !searchField.getText().isBlank()) {
+                    studentTable.setPlaceholder(new Label("No students found matching your search."));
+                }
             }
-
-            @Override
-            protected void updateItem(Void item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty) {
-                    setGraphic(null);
-                } else {
-                    HBox container = new HBox(5, viewBtn, deleteBtn); // spacing = 5
-                    container.setStyle("-fx-alignment: center;");
-                    setGraphic(container);
+            case DataChange.CommentChange comments -> {
+                int index = indexOf(comments.studentId());
+                if (index >= 0) {
+                    comments.applyTo(rows.get(index));
+                    rows.set(index, rows.get(index));
                 }
             }
-        });
+            case DataChange.LanguageChanged language -> {
+                for (Student student : rows) {
+                    student.setLanguages(language.applyTo(student.getLanguages()));
+                }
+                studentTable.refresh();
+            }
+            case DataChange.StudentCreated created -> {
+                // Results are not matched again; the next search finds the new student
+            }
+        }
     }
 
-    private void addCommentColumnToTable() {
-        commentColumn.setCellFactory(column -> new TableCell<>() {
-            private final Button commentsBtn = new Button("All Comments");
+    private int indexOf(int studentId) {
+        List<Student> rows = studentTable.getItems();
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getId() == studentId) return i;
+        }
+        return -1;
+    }
 
-            {
-                commentsBtn.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-size: 13px; -fx-padding: 5 8;");
+    private void addActionColumnToTable() {
+        // The row goes away when the delete is published
+        actionsColumn.setCellFactory(ActionButtonsCell.forActions(List.of(
+                new ActionButtonsCell.Action<>("View", "button-blue",
+                        student -> actionsHandler.handleView(student, null)),
+                new ActionButtonsCell.Action<>("Delete", "button-red", student ->
+                        AsyncDataAccess.onFxThread(actionsHandler.handleDelete(student), deleted -> {
+                        }, null)))));
+    }
 
-                // Handle View Comments
-                commentsBtn.setOnAction(event ->
-                {
-                    Student student = getTableView().getItems().get(getIndex());
+    private void addCommentColumnToTable() {
+        commentColumn.setCellFactory(ActionButtonsCell.forActions(List.of(
+                new ActionButtonsCell.Action<>("All Comments", "button-green", student -> {
                     Stage mainStage = (Stage) backButton.getScene().getWindow();
                     ((StudentsActionsHandler) actionsHandler).viewAllComments(student, mainStage);
+                }))));
+    }
 
-                });
 
-            }
+    /**
+     * Search once the user pauses typing
+     */
+    private void searchLater() {
+        searchDebouncer.call(() -> searchStudents(searchField.getText(), false));
+    }
 
-            @Override
-            protected void updateItem(Void item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty) {
-                    setGraphic(null);
-                } else {
-                    HBox container = new HBox(10, commentsBtn);
-                    container.setStyle("-fx-alignment: center;");
-                    setGraphic(container);
-                }
-            }
-        });
+    /**
+     * Search right away, even if the same query is already showing (e.g. the Search button)
+     */
+    private void searchNow() {
+        searchDebouncer.cancel();
+        searchStudents(searchField.getText(), true);
     }
 
+    private void searchStudents(String text, boolean force) {
+        String query = text == null ? "" : text.trim();
+        boolean inMemory = inMemoryCheckBox.isSelected();
+        String key = (inMemory ? "mem:" : "fts:") + query;
+        if (!force && key.equals(lastQuery)) return; // e.g. only whitespace changed
+        lastQuery = key;
+
+        // A newer search replaces the one still running
+        if (pendingSearch != null) pendingSearch.cancel(true);
+        long searchId = ++searchGeneration;
 
-    private void searchStudents(String query) {
-        if (query == null || query.trim().isEmpty()) {
+        if (query.isEmpty()) {
             studentTable.setItems(FXCollections.observableArrayList());
             studentTable.setPlaceholder(new Label("Start typing to search for a student..."));
             return;
         }
 
-        List<Student> students = studentDao.getAllStudents("name", "ASC");
-        String lowerQuery = query.toLowerCase();
+        pendingSearch = AsyncDataAccess.load(() -> runSearch(query, inMemory), results -> {
+            if (searchId != searchGeneration) return; // finished just as a newer search started
+            showResults(results);
+        }, error -> {
+            if (searchId != searchGeneration) return;
+            lastQuery = null; // let the same query be retried
+            studentTable.setItems(FXCollections.observableArrayList());
+            studentTable.setPlaceholder(new Label("Search failed: " + error.getMessage()));
+        });
+    }
 
-        List<Student> filtered = students.stream()
-                .filter(s ->
-                        (s.getName() != null && s.getName().toLowerCase().contains(lowerQuery)) ||
-                                (s.getAcademicStatus() != null && s.getAcademicStatus().toLowerCase().contains(lowerQuery)) ||
-                                (s.getDbSkills() != null && s.getDbSkills().toLowerCase().contains(lowerQuery)) ||
-                                (s.getRole() != null && s.getRole().toLowerCase().contains(lowerQuery)) ||
-                                (s.getLanguagesAsString() != null && s.getLanguagesAsString().toLowerCase().contains(lowerQuery))
-                )
-                .collect(Collectors.toList());
+    /**
+     * Run a search; called on a background thread
+     */
+    private SearchResults runSearch(String query, boolean inMemory) {
+        if (inMemory) {
+            // Prefix match in the in-memory index: no database query per keystroke
+            return new SearchResults(studentDao.searchIndexed(query), Map.of());
+        }
+
+        // Ranked full-text match over student fields, languages and comments
+        List<SearchHit> hits = searchDao.search(query, MAX_RESULTS);
+        List<Integer> ids = new ArrayList<>();
+        Map<Integer, String> hitSnippets = new HashMap<>();
+        for (SearchHit hit : hits) {
+            ids.add(hit.getStudentId());
+            hitSnippets.put(hit.getStudentId(), hit.getSnippet());
+        }
+        return new SearchResults(studentDao.getStudentsByIds(ids, false), hitSnippets);
+    }
 
-        if (filtered.isEmpty()) {
+    private void showResults(SearchResults results) {
+        snippets = results.snippets();
+        if (results.students().isEmpty()) {
             studentTable.setPlaceholder(new Label("No students found matching your search."));
         }
 
-        studentTable.setItems(FXCollections.observableArrayList(filtered));
+        studentTable.setItems(FXCollections.observableArrayList(results.students()));
     }
 
     @FXML
     private void onSearchClicked() {
-        searchStudents(searchField.getText());
+        searchNow();
     }
 
     @FXML
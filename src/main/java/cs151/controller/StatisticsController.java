@@ -0,0 +1,164 @@
+package cs151.controller;
+
+import cs151.controller.services.AsyncDataAccess;
+import cs151.controller.services.DataChangeSubscriber;
+import cs151.controller.services.Debouncer;
+import cs151.data.StatisticsDAO;
+import cs151.model.StudentStatistics;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.*;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Controller for the Statistics View
+ * Shows how students are spread over flags, statuses, roles, skills and comments.
+ * The counts come from StatisticsDAO, which keeps them up to date, so opening the page
+ * or pressing Refresh does not re-read every student.
+ */
+public class StatisticsController {
+
+    @FXML
+    private Button closeButton;
+
+    @FXML
+    private Button refreshButton;
+
+    @FXML
+    private Label totalStudentsLabel;
+
+    @FXML
+    private Label totalCommentsLabel;
+
+    @FXML
+    private Label averageCommentsLabel;
+
+    @FXML
+    private PieChart flagChart;
+
+    @FXML
+    private PieChart academicStatusChart;
+
+    @FXML
+    private PieChart roleChart;
+
+    @FXML
+    private PieChart employmentChart;
+
+    @FXML
+    private BarChart<String, Number> languagesChart;
+
+    @FXML
+    private BarChart<String, Number> dbSkillsChart;
+
+    @FXML
+    private BarChart<String, Number> commentsChart;
+
+    @FXML
+    private TableView<Map.Entry<String, Map<String, Integer>>> crossTabTable;
+
+    // A burst of changes (e.g. an import) redraws the charts once
+    private static final long REDRAW_DELAY_MILLIS = 500;
+
+    private final StatisticsDAO statisticsDao = new StatisticsDAO();
+    private final Debouncer redrawDebouncer = new Debouncer(REDRAW_DELAY_MILLIS);
+
+    @FXML
+    public void initialize() {
+        load(statisticsDao::getStatistics);
+
+        // The DAOs have already adjusted the counts by the time a change is published
+        DataChangeSubscriber.subscribe(refreshButton, change ->
+                redrawDebouncer.call(() -> load(statisticsDao::getStatistics)));
+    }
+
+    @FXML
+    private void onRefreshButtonClick() {
+        load(statisticsDao::refresh);
+    }
+
+    @FXML
+    private void onCloseButtonClick() {
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
+    }
+
+    private void load(Callable<StudentStatistics> call) {
+        refreshButton.setDisable(true);
+        AsyncDataAccess.load(call, stats -> {
+            refreshButton.setDisable(false);
+            showStatistics(stats);
+        }, error -> {
+            refreshButton.setDisable(false);
+            totalStudentsLabel.setText("Could not load statistics: " + error.getMessage());
+        });
+    }
+
+    private void showStatistics(StudentStatistics stats) {
+        totalStudentsLabel.setText(String.valueOf(stats.getTotalStudents()));
+        totalCommentsLabel.setText(String.valueOf(stats.getTotalComments()));
+        averageCommentsLabel.setText(String.format("%.1f", stats.getAverageCommentsPerStudent()));
+
+        flagChart.setData(pieData(stats.getByFlag()));
+        academicStatusChart.setData(pieData(stats.getByAcademicStatus()));
+        roleChart.setData(pieData(stats.getByRole()));
+        employmentChart.setData(pieData(stats.getByEmploymentStatus()));
+
+        setBars(languagesChart, stats.getLanguages());
+        setBars(dbSkillsChart, stats.getDbSkills());
+
+        XYChart.Series<String, Number> comments = new XYChart.Series<>();
+        stats.getCommentsPerStudent().forEach((count, students) ->
+                comments.getData().add(new XYChart.Data<>(String.valueOf(count), students)));
+        commentsChart.getData().setAll(List.of(comments));
+
+        showCrossTab(stats.getFlagByAcademicStatus());
+    }
+
+    private ObservableList<PieChart.Data> pieData(Map<String, Integer> counts) {
+        ObservableList<PieChart.Data> data = FXCollections.observableArrayList();
+        counts.forEach((name, count) -> data.add(new PieChart.Data(name + " (" + count + ")", count)));
+        return data;
+    }
+
+    private void setBars(BarChart<String, Number> chart, Map<String, Integer> counts) {
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        counts.forEach((name, count) -> series.getData().add(new XYChart.Data<>(name, count)));
+        chart.getData().setAll(List.of(series));
+    }
+
+    /**
+     * One row per academic status, one column per flag
+     */
+    private void showCrossTab(Map<String, Map<String, Integer>> flagByStatus) {
+        Set<String> flags = new LinkedHashSet<>();
+        flagByStatus.values().forEach(counts -> flags.addAll(counts.keySet()));
+
+        List<TableColumn<Map.Entry<String, Map<String, Integer>>, String>> columns = new ArrayList<>();
+        TableColumn<Map.Entry<String, Map<String, Integer>>, String> statusColumn = new TableColumn<>("Academic Status");
+        statusColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getKey()));
+        statusColumn.setPrefWidth(160);
+        columns.add(statusColumn);
+        for (String flag : flags) {
+            TableColumn<Map.Entry<String, Map<String, Integer>>, String> column = new TableColumn<>(flag);
+            column.setCellValueFactory(data ->
+                    new SimpleStringProperty(String.valueOf(data.getValue().getValue().getOrDefault(flag, 0))));
+            columns.add(column);
+        }
+
+        crossTabTable.getColumns().setAll(columns);
+        crossTabTable.setItems(FXCollections.observableArrayList(flagByStatus.entrySet()));
+    }
+}
@@ -2,8 +2,10 @@ package cs151.controller;
 
 import cs151.application.Main;
 import cs151.controller.services.ActionsHandler;
+import cs151.controller.services.DataChangeSubscriber;
 import cs151.controller.services.NavigationHandler;
 import cs151.model.Student;
+import cs151.data.DataChange;
 import cs151.data.StudentDAO;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
@@ -60,11 +62,31 @@ public class StudentDetailController {
         this.actionsHandler = actionsHandler;
     }
 
+    @FXML
+    public void initialize() {
+        // Follow edits and deletes of this student made in other windows
+        DataChangeSubscriber.subscribe(nameDetail, change -> {
+            if (student == null) return;
+            switch (change) {
+                case DataChange.StudentUpdated updated when updated.student().getId() == student.getId() ->
+                        setStudent(updated.student());
+                case DataChange.StudentDeleted deleted when deleted.studentId() == student.getId() ->
+                        ((Stage) closeButton.getScene().getWindow()).close();
+                case DataChange.LanguageChanged language -> {
+                    student.setLanguages(language.applyTo(student.getLanguages()));
+                    setStudent(student);
+                }
+                default -> {
+                }
+            }
+        });
+    }
+
     /**
      * Populate fields with student data
      */
     public void setStudent(Student student) {
-        this.student = student;
+        this.student = new Student(student); // our own copy: language changes are applied to it in place
         nameDetail.setText(student.getName() != null ? student.getName() : "N/A");
         academicStatusDetail.setText(student.getAcademicStatus() != null ? student.getAcademicStatus() : "N/A");
         employmentStatusDetail.setText(student.getEmploymentStatus() != null ? student.getEmploymentStatus() : "N/A");
@@ -2,9 +2,12 @@ package cs151.controller;
 
 import cs151.application.Main;
 import cs151.controller.services.ActionsHandler;
+import cs151.controller.services.AsyncDataAccess;
 import cs151.controller.services.CommentsActionsHandler;
+import cs151.controller.services.DataChangeSubscriber;
 import cs151.controller.services.NavigationHandler;
 import cs151.data.CommentDAO;
+import cs151.data.DataChange;
 import cs151.model.Comment;
 import cs151.model.Student;
 import javafx.beans.property.SimpleStringProperty;
@@ -87,14 +90,44 @@ public class StudentProfileReportController {
             });
             return row;
         });
+
+        DataChangeSubscriber.subscribe(commentsTable, this::onDataChange);
     }
 
     /**
      * Set the student whose profile will be displayed
      */
     public void setStudent(Student student) {
-        this.currentStudent = student;
-        
+        showProfile(student);
+
+        // Load and display comments
+        loadComments();
+    }
+
+    /**
+     * Follow changes to this student and its comments made in other windows
+     */
+    private void onDataChange(DataChange change) {
+        if (currentStudent == null) return;
+        int studentId = currentStudent.getId();
+        switch (change) {
+            case DataChange.StudentUpdated updated when updated.student().getId() == studentId ->
+                    showProfile(updated.student());
+            case DataChange.StudentDeleted deleted when deleted.studentId() == studentId ->
+                    ((Stage) backButton.getScene().getWindow()).close();
+            case DataChange.CommentChange comments when comments.studentId() == studentId -> loadComments();
+            case DataChange.LanguageChanged language -> {
+                currentStudent.setLanguages(language.applyTo(currentStudent.getLanguages()));
+                languagesLabel.setText(currentStudent.getLanguagesAsString());
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void showProfile(Student student) {
+        this.currentStudent = new Student(student); // changed in place by LanguageChanged below
+
         // Display student information
         nameLabel.setText(student.getName());
         academicStatusLabel.setText(student.getAcademicStatus());
@@ -110,16 +143,17 @@ public class StudentProfileReportController {
             flagLabel.setStyle("-fx-text-fill: #27ae60; -fx-font-weight: bold; -fx-font-size: 15px;");
         } else if ("Blacklist".equals(flag)) {
             flagLabel.setStyle("-fx-text-fill: #e74c3c; -fx-font-weight: bold; -fx-font-size: 15px;");
+        } else {
+            flagLabel.setStyle("");
         }
-        
-        // Load and display comments
-        loadComments();
     }
 
     private void loadComments() {
-        List<Comment> comments = commentDao.getCommentsByStudentId(currentStudent.getId());
-        commentsTable.setItems(FXCollections.observableArrayList(comments));
-        commentCountLabel.setText(comments.size() + " comment" + (comments.size() != 1 ? "s" : ""));
+        int studentId = currentStudent.getId();
+        AsyncDataAccess.load(() -> commentDao.getCommentsByStudentId(studentId), comments -> {
+            commentsTable.setItems(FXCollections.observableArrayList(comments));
+            commentCountLabel.setText(comments.size() + " comment" + (comments.size() != 1 ? "s" : ""));
+        });
     }
 
     private void showCommentDetail(Comment comment) {
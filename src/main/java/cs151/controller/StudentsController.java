@@ -1,14 +1,25 @@
 package cs151.controller;
 
+import cs151.controller.cells.ActionButtonsCell;
+import cs151.controller.cells.CellStyles;
+import cs151.controller.cells.CommentSummaryCell;
+import cs151.controller.cells.FlagCell;
 import cs151.controller.services.ActionsHandler;
+import cs151.controller.services.AsyncDataAccess;
+import cs151.controller.services.DataChangeSubscriber;
+import cs151.controller.services.Debouncer;
 import cs151.controller.services.NavigationHandler;
+import cs151.controller.services.StudentPageLoader;
 import cs151.controller.services.StudentsActionsHandler;
+import cs151.data.DataChange;
 import cs151.data.LanguageDAO;
 import cs151.data.StudentDAO;
 import cs151.data.CommentDAO;
 import cs151.model.Comment;
+import cs151.model.CommentSummary;
 import cs151.model.Language;
 import cs151.model.Student;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -22,7 +33,6 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * Controller for the Student Management page
@@ -89,12 +99,16 @@ public class StudentsController {
 
     private Label countLabel;
 
+    // Pause after typing in "Jump to name" before the page is fetched
+    private static final long JUMP_DEBOUNCE_MILLIS = 200;
+
 
     private final StudentDAO studentDao = new StudentDAO();
     private final LanguageDAO languageDao = new LanguageDAO();
     private final CommentDAO commentDao = new CommentDAO();
     private final ActionsHandler<Student> actionsHandler = new StudentsActionsHandler(studentDao);
     private Student editingStudent = null; // Track if we're editing
+    private boolean popup; // opened in a window of its own by handleEdit, not on the main window
     private List<Comment> currentComments = new ArrayList<>();
 
     // Available options for multi-select
@@ -120,8 +134,15 @@ public class StudentsController {
         studentDao.initTable();
         languageDao.initTable();
         
-        // Load available languages from database
+        // Load available languages from database (the check boxes appear when they arrive)
         loadAvailableLanguages();
+
+        // Languages added, renamed or deleted in another window: rebuild the check boxes, keeping what is ticked
+        DataChangeSubscriber.subscribe(nameField, change -> {
+            if (change instanceof DataChange.LanguageChanged language) {
+                loadAvailableLanguages(language.applyTo(getCheckedLanguages()));
+            }
+        });
         
         // Set up academic status options
         academicStatusCombo.setItems(FXCollections.observableArrayList(
@@ -162,9 +183,6 @@ public class StudentsController {
             "Front-End", "Back-End", "Full-Stack", "Data", "Other"
         ));
 
-        // Set up CheckBoxes for languages
-        createLanguageCheckBoxes();
-        
         // Set up CheckBoxes for database skills
         createDbSkillCheckBoxes();
         
@@ -222,22 +240,38 @@ public class StudentsController {
     }
     
     /**
-     * Load available languages from database
+     * Load available languages from database in the background, then build their CheckBoxes
      */
     private void loadAvailableLanguages() {
-        availableLanguages.clear();
-        List<Language> languages = languageDao.getAllLanguages();
-        // Sort alphabetically
-        languages.sort((a, b) -> a.getName().compareToIgnoreCase(b.getName()));
-        for (Language lang : languages) {
-            availableLanguages.add(lang.getName());
-        }
+        loadAvailableLanguages(null);
+    }
+
+    /**
+     * @param checked Languages to tick, or null to tick the edited student's languages
+     */
+    private void loadAvailableLanguages(List<String> checked) {
+        AsyncDataAccess.load(languageDao::getAllLanguages, languages -> {
+            availableLanguages.clear();
+            // Sort alphabetically
+            languages.sort((a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+            for (Language lang : languages) {
+                availableLanguages.add(lang.getName());
+            }
+            createLanguageCheckBoxes(checked);
+        }, error -> showMessage("Could not load languages: " + error.getMessage(), "error"));
     }
     
+    private List<String> getCheckedLanguages() {
+        return languageCheckBoxes.stream()
+            .filter(CheckBox::isSelected)
+            .map(CheckBox::getText)
+            .collect(Collectors.toList());
+    }
+
     /**
      * Create CheckBoxes for programming languages
      */
-    private void createLanguageCheckBoxes() {
+    private void createLanguageCheckBoxes(List<String> checked) {
         languageCheckBoxes.clear();
         languagesCheckBoxContainer.getChildren().clear();
         
@@ -248,6 +282,10 @@ public class StudentsController {
             checkBox.setPrefHeight(50);
             checkBox.setMaxWidth(Double.MAX_VALUE);
             checkBox.setWrapText(true);
+            // The form may already be editing a student if the languages arrived late
+            checkBox.setSelected(checked != null
+                    ? checked.contains(language)
+                    : editingStudent != null && editingStudent.getLanguages().contains(language));
             languageCheckBoxes.add(checkBox);
             languagesCheckBoxContainer.getChildren().add(checkBox);
         }
@@ -286,36 +324,32 @@ public class StudentsController {
         TableView<Student> studentsTable = new TableView<>();
         studentsTable.setPrefWidth(1600);
         studentsTable.setPrefHeight(500);
-        studentsTable.setStyle("-fx-font-size: 15px;");
+        studentsTable.getStyleClass().add("students-table");
         studentsTable.setFixedCellSize(45);
+        StudentPageLoader pageLoader = new StudentPageLoader(studentDao, studentsTable);
         
         // Set up columns
         TableColumn<Student, String> nameCol = new TableColumn<>("Name");
         nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
         nameCol.setPrefWidth(120);
-        nameCol.setStyle("-fx-font-size: 15px;");
         
         TableColumn<Student, String> statusCol = new TableColumn<>("Academic Status");
         statusCol.setCellValueFactory(new PropertyValueFactory<>("academicStatus"));
         statusCol.setPrefWidth(120);
-        statusCol.setStyle("-fx-font-size: 15px;");
         
         TableColumn<Student, String> langCol = new TableColumn<>("Languages");
         langCol.setCellValueFactory(cellData -> 
             new javafx.beans.property.SimpleStringProperty(cellData.getValue().getLanguagesAsString())
         );
         langCol.setPrefWidth(150);
-        langCol.setStyle("-fx-font-size: 15px;");
         
         TableColumn<Student, String> dbCol = new TableColumn<>("DB Skills");
         dbCol.setCellValueFactory(new PropertyValueFactory<>("dbSkills"));
         dbCol.setPrefWidth(150);
-        dbCol.setStyle("-fx-font-size: 15px;");
         
         TableColumn<Student, String> roleCol = new TableColumn<>("Role");
         roleCol.setCellValueFactory(new PropertyValueFactory<>("role"));
         roleCol.setPrefWidth(100);
-        roleCol.setStyle("-fx-font-size: 15px;");
         
         TableColumn<Student, String> employmentCol = new TableColumn<>("Employment");
         employmentCol.setCellValueFactory(cellData ->
@@ -324,7 +358,6 @@ public class StudentsController {
                 )
         );
         employmentCol.setPrefWidth(110);
-        employmentCol.setStyle("-fx-font-size: 15px;");
         
         TableColumn<Student, String> jobDetailsCol = new TableColumn<>("Job Details");
         jobDetailsCol.setCellValueFactory(cellData ->
@@ -333,23 +366,12 @@ public class StudentsController {
                 )
         );
         jobDetailsCol.setPrefWidth(150);
-        jobDetailsCol.setStyle("-fx-font-size: 15px;");
         
-        TableColumn<Student, String> commentsCol = new TableColumn<>("Comments");
-        commentsCol.setCellValueFactory(cellData -> {
-            List<Comment> comments = cellData.getValue().getComments();
-            String commentsStr = "N/A";
-            if (comments != null && !comments.isEmpty()) {
-                commentsStr = IntStream.range(0, comments.size())
-                                        .mapToObj(i -> (i + 1) + ". " + comments.get(i).getContent())
-                                        .collect(Collectors.joining("\n"));
-
-            }
-            return new javafx.beans.property.SimpleStringProperty(commentsStr);
-        });
-
-        commentsCol.setPrefWidth(150);
-        commentsCol.setStyle("-fx-font-size: 15px;");
+        // Summaries are kept with each student; the tooltip fetches the full comments only when shown
+        TableColumn<Student, CommentSummary> commentsCol = new TableColumn<>("Comments");
+        commentsCol.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getCommentSummary()));
+        commentsCol.setCellFactory(CommentSummaryCell.forSummaries(commentDao));
+        commentsCol.setPrefWidth(280);
         
         TableColumn<Student, String> flagCol = new TableColumn<>("Flag");
         flagCol.setCellValueFactory(cellData ->
@@ -357,106 +379,63 @@ public class StudentsController {
                         cellData.getValue().getFlag() != null ? cellData.getValue().getFlag() : "None"
                 )
         );
+        flagCol.setCellFactory(FlagCell.forFlags());
         flagCol.setPrefWidth(100);
-        flagCol.setStyle("-fx-font-size: 15px;");
         
         // Actions column
         TableColumn<Student, Void> actionsCol = new TableColumn<>("Actions");
         actionsCol.setPrefWidth(250);
 
-        actionsCol.setCellFactory(column -> new TableCell<>() {
-            private final Button viewBtn = new Button("View");
-            private final Button editBtn = new Button("Edit");
-            private final Button deleteBtn = new Button("Delete");
-            
-            {
-                viewBtn.setOnAction(e -> {
-                    Student student = getTableView().getItems().get(getIndex());
-                    actionsHandler.handleView(student, () -> {
-                        refreshStudentTable(studentsTable, countLabel);
-                    });
-                });
-
-                editBtn.setOnAction(e -> {
-                    Student student = getTableView().getItems().get(getIndex());
+        actionsCol.setCellFactory(ActionButtonsCell.forActions(List.of(
+                // Edits made from the details window reach the table as change events
+                new ActionButtonsCell.Action<>("View", "button-green", student -> actionsHandler.handleView(student, null)),
+                new ActionButtonsCell.Action<>("Edit", "button-blue", student -> {
                     actionsHandler.handleEdit(student);
                     dialog.close();
-                });
-                
-                deleteBtn.setOnAction(e -> {
-                    Student student = getTableView().getItems().get(getIndex());
-                    boolean deleted = actionsHandler.handleDelete(student);
-                    if (deleted) {
-                        getTableView().getItems().remove(student); // Remove from table
-
-                        // Clear form if we were editing this student
-                        if (editingStudent != null && editingStudent.getId() == student.getId()) {
-                            clearForm();
-                        }
-
-                        // Update student count label
-                        countLabel.setText("Total: " + getTableView().getItems().size() +
-                                " student" + (getTableView().getItems().size() != 1 ? "s" : ""));
-                    }
-                });
-                
-                viewBtn.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-size: 13px; -fx-padding: 5 10;");
-                editBtn.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-size: 13px; -fx-padding: 5 10;");
-                deleteBtn.setStyle("-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-size: 13px; -fx-padding: 5 10;");
-            }
-            
-            @Override
-            protected void updateItem(Void item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty) {
-                    setGraphic(null);
-                } else {
-                    javafx.scene.layout.HBox buttons = new javafx.scene.layout.HBox(5);
-                    buttons.setAlignment(javafx.geometry.Pos.CENTER);
-                    buttons.getChildren().addAll(viewBtn, editBtn, deleteBtn);
-                    setGraphic(buttons);
-                }
-            }
-        });
+                }),
+                new ActionButtonsCell.Action<>("Delete", "button-red", student ->
+                        AsyncDataAccess.onFxThread(actionsHandler.handleDelete(student), deleted -> {
+                            // The table drops the row itself when the delete is published
+                            // Clear form if we were editing this student
+                            if (deleted && editingStudent != null && editingStudent.getId() == student.getId()) {
+                                clearForm();
+                            }
+                        }, null)))));
         
         studentsTable.getColumns().addAll(nameCol, statusCol, langCol, dbCol, roleCol, employmentCol, jobDetailsCol, commentsCol, flagCol, actionsCol);
         
-        // Load students
-        ObservableList<Student> students = FXCollections.observableArrayList(
-            studentDao.getAllStudentsSortedByName()
-        );
-        studentsTable.setItems(students);
-        
-        // Sort by name
-        studentsTable.getSortOrder().add(nameCol);
-        nameCol.setSortType(TableColumn.SortType.ASCENDING);
-        studentsTable.sort();
-        
+        // Load students one page at a time as the user scrolls (sorted by name, then id)
+        countLabel = new Label("Total: ...");
+        countLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: bold;");
+        pageLoader.setOnTotalCountChanged(total ->
+                countLabel.setText("Total: " + total + " student" + (total != 1 ? "s" : "")));
+        pageLoader.reload();
+
+        // Jump to the first name starting with the typed text
+        TextField jumpField = new TextField();
+        jumpField.setPromptText("Jump to name...");
+        jumpField.setPrefWidth(250);
+        Debouncer jumpDebouncer = new Debouncer(JUMP_DEBOUNCE_MILLIS);
+        jumpField.textProperty().addListener((obs, oldVal, newVal) ->
+                jumpDebouncer.call(() -> pageLoader.jumpTo(newVal)));
+
+        javafx.scene.layout.HBox header = new javafx.scene.layout.HBox(15, countLabel, jumpField);
+        header.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+
         // Create content with student count
         javafx.scene.layout.VBox content = new javafx.scene.layout.VBox(10);
         content.setPadding(new javafx.geometry.Insets(10));
         
-        countLabel = new Label("Total: " + students.size() + " student" + (students.size() != 1 ? "s" : ""));
-        countLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: bold;");
-        
-        content.getChildren().addAll(countLabel, studentsTable);
+        content.getChildren().addAll(header, studentsTable);
         
         // Set dialog content
         dialog.getDialogPane().setContent(content);
+        CellStyles.addTo(dialog.getDialogPane());
         dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
         
         // Show dialog
         dialog.showAndWait();
     }
-    public void refreshStudentTable(TableView<Student> table, Label countLabel) {
-        ObservableList<Student> students = FXCollections.observableArrayList(studentDao.getAllStudentsSortedByName());
-        table.setItems(students);
-
-        int size = table.getItems().size();
-        countLabel.setText("Total: " + size + " student" + (size != 1 ? "s" : ""));
-    }
-
-
     /**
      * Handle Save button click
      */
@@ -474,10 +453,7 @@ public class StudentsController {
 
 
         // Get selected languages from CheckBoxes
-        List<String> selectedLanguages = languageCheckBoxes.stream()
-            .filter(CheckBox::isSelected)
-            .map(CheckBox::getText)
-            .collect(Collectors.toList());
+        List<String> selectedLanguages = getCheckedLanguages();
         String languagesStr = String.join(", ", selectedLanguages);
         
         // Get selected DB skills from CheckBoxes
@@ -551,38 +527,36 @@ public class StudentsController {
         student.setFlag(flag);
 
         String newCommentContent = commentsArea.getText().trim();
+        Comment newComment = null;
         if (!newCommentContent.isEmpty()) {
-            Comment newComment = new Comment(0, student.getId(), newCommentContent, LocalDate.now());
-
+            newComment = new Comment(0, student.getId(), newCommentContent, LocalDate.now());
             currentComments.add(newComment);
-            commentDao.addComment(newComment);
         }
 
         student.setComments(currentComments);
         commentsArea.setText(currentComments.stream().map(Comment::getContent).collect(Collectors.joining("\n")));
 
-        // Save to database
-        boolean success;
-        if (editingStudent != null) {
-            success = studentDao.updateStudent(student);
-            if (success) {
-                showMessage("Student '" + student.getName() + "' updated successfully!", "success");
-            } else {
-                showMessage("Failed to update student.", "error");
+        // Save to database in the background; the button stays disabled until it is done
+        boolean updating = editingStudent != null;
+        Comment commentToAdd = newComment;
+        saveButton.setDisable(true);
+        AsyncDataAccess.load(() -> {
+            if (commentToAdd != null) commentDao.addComment(commentToAdd);
+            return updating ? studentDao.updateStudent(student) : studentDao.saveStudent(student);
+        }, success -> {
+            saveButton.setDisable(false);
+            if (!success) {
+                showMessage(updating ? "Failed to update student." : "Failed to create student.", "error");
                 return;
             }
-        } else {
-            success = studentDao.saveStudent(student);
-            if (success) {
-                showMessage("Student '" + student.getName() + "' created successfully!", "success");
-            } else {
-                showMessage("Failed to create student.", "error");
-                return;
-            }
-        }
+            showMessage("Student '" + student.getName() + "' " + (updating ? "updated" : "created") + " successfully!", "success");
 
-        // Clear form
-        clearForm();
+            // Clear form
+            clearForm();
+        }, error -> {
+            saveButton.setDisable(false);
+            showMessage("Failed to save student: " + error.getMessage(), "error");
+        });
     }
     
     /**
@@ -616,11 +590,13 @@ public class StudentsController {
         
         preferredRoleCombo.setValue(null);
         commentsArea.clear();
+        currentComments = new ArrayList<>();
         whitelistCheckbox.setSelected(false);
         blacklistCheckbox.setSelected(false);
 
         messageLabel.setText("");
         editingStudent = null;
+        saveButton.setDisable(false); // an edit may still be waiting for its comments
         formTitleLabel.setText("Create New Student Profile");
         saveButton.setText("Save Student");
     }
@@ -629,7 +605,10 @@ public class StudentsController {
      * Handle Edit button click
      */
     public void handleEdit(Student student) {
-        this.editingStudent = student;
+        // The form writes into this copy on save; other windows keep showing the saved values
+        Student editing = new Student(student);
+        this.editingStudent = editing;
+        this.popup = true;
 
         // Update form labels to Edit Mode
         formTitleLabel.setText("Edit Student Profile: " + student.getName());
@@ -660,12 +639,20 @@ public class StudentsController {
             jobDetailsField.clear();
         }
 
-        currentComments = new ArrayList<>(student.getComments());
-        commentsArea.setText(
-                currentComments.stream().
-                        map(Comment::getContent).
-                        collect(Collectors.joining("\n"))
-        );
+        // Comments may not be loaded yet; read them in the background and keep Update disabled until then
+        currentComments = new ArrayList<>();
+        commentsArea.clear();
+        saveButton.setDisable(true);
+        AsyncDataAccess.load(() -> commentDao.getCommentsByStudentId(student.getId()), comments -> {
+            if (editingStudent != editing) return; // another student was opened or the form was cleared
+            currentComments = new ArrayList<>(comments);
+            commentsArea.setText(currentComments.stream().map(Comment::getContent).collect(Collectors.joining("\n")));
+            saveButton.setDisable(false);
+        }, error -> {
+            if (editingStudent != editing) return;
+            saveButton.setDisable(false);
+            showMessage("Could not load comments: " + error.getMessage(), "error");
+        });
 
         whitelistCheckbox.setSelected("Whitelist".equalsIgnoreCase(student.getFlag()));
         blacklistCheckbox.setSelected("Blacklist".equalsIgnoreCase(student.getFlag()));
@@ -701,8 +688,8 @@ public class StudentsController {
     @FXML
     protected void onBackButtonClick() {
         Stage stage = (Stage) backButton.getScene().getWindow();
-        if (editingStudent != null) {
-            stage.close();
+        if (popup) {
+            stage.close(); // Home belongs to the main window
             return;
         }
         NavigationHandler nav = new NavigationHandler();
@@ -0,0 +1,58 @@
+package cs151.controller.cells;
+
+import javafx.scene.control.Button;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.layout.HBox;
+import javafx.util.Callback;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A table cell with a row of buttons acting on the row's item
+ * The buttons and their box are built once per cell; scrolling only shows or hides them,
+ * and a click reads whichever row the cell shows at that moment.
+ * @param <S> The table's row type
+ */
+public class ActionButtonsCell<S> extends TableCell<S, Void> {
+
+    /**
+     * One button of the cell
+     * @param text Button label
+     * @param styleClass Colour class from cells.css, e.g. "button-green", "button-blue" or "button-red"
+     * @param onAction Called with the row's item
+     */
+    public record Action<S>(String text, String styleClass, Consumer<S> onAction) {
+    }
+
+    private final HBox buttons = new HBox(5);
+
+    public ActionButtonsCell(List<Action<S>> actions) {
+        buttons.getStyleClass().add("action-buttons");
+        for (Action<S> action : actions) {
+            Button button = new Button(action.text());
+            button.getStyleClass().addAll("action-button", action.styleClass());
+            button.setOnAction(event -> {
+                S item = getTableRow() == null ? null : getTableRow().getItem();
+                if (item != null) action.onAction().accept(item);
+            });
+            buttons.getChildren().add(button);
+        }
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    /**
+     * Cell factory for an actions column
+     */
+    public static <S> Callback<TableColumn<S, Void>, TableCell<S, Void>> forActions(List<Action<S>> actions) {
+        return column -> new ActionButtonsCell<>(actions);
+    }
+
+    @Override
+    protected void updateItem(Void item, boolean empty) {
+        super.updateItem(item, empty);
+        setGraphic(empty ? null : buttons);
+    }
+}
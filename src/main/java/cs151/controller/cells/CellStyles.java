@@ -0,0 +1,26 @@
+package cs151.controller.cells;
+
+import javafx.scene.Parent;
+
+/**
+ * The shared stylesheet for the cells in this package
+ * Cells only carry style classes and pseudo-classes; the rules live in cells.css, which is
+ * parsed once and shared by every scene that adds it, instead of an inline -fx-* string
+ * being parsed for each cell.
+ */
+public final class CellStyles {
+    public static final String STYLESHEET = CellStyles.class
+            .getResource("/cs151/application/cells.css").toExternalForm();
+
+    private CellStyles() {
+    }
+
+    /**
+     * Add the stylesheet to a root built in code (e.g. a Dialog's pane); FXML views use stylesheets="@cells.css"
+     */
+    public static void addTo(Parent root) {
+        if (!root.getStylesheets().contains(STYLESHEET)) {
+            root.getStylesheets().add(STYLESHEET);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package cs151.controller.cells;
+
+import cs151.model.Comment;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.util.Callback;
+
+import java.util.function.Consumer;
+
+/**
+ * One comment card (date, Delete button and wrapped text) in a comment ListView
+ * The card is built once per cell; updateItem only swaps the two texts.
+ */
+public class CommentCell extends ListCell<Comment> {
+    // Horizontal cell and card padding plus room for the scroll bar
+    private static final double WRAP_INSET = 60;
+
+    private final VBox card = new VBox(8);
+    private final Label dateLabel = new Label();
+    private final Label contentLabel = new Label();
+
+    /**
+     * @param list The list the cell belongs to; the text wraps to its width
+     * @param onDelete Called with the cell's comment when Delete is clicked
+     */
+    public CommentCell(ListView<Comment> list, Consumer<Comment> onDelete) {
+        getStyleClass().add("comment-cell");
+        card.getStyleClass().add("comment-card");
+
+        HBox header = new HBox(10);
+        header.getStyleClass().add("comment-header");
+        dateLabel.getStyleClass().add("comment-date");
+
+        Button deleteButton = new Button("Delete");
+        deleteButton.getStyleClass().addAll("action-button", "button-red");
+        deleteButton.setOnAction(event -> {
+            if (getItem() != null) onDelete.accept(getItem());
+        });
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        header.getChildren().addAll(dateLabel, spacer, deleteButton);
+
+        // Wrap to the list's width rather than growing the row sideways
+        contentLabel.getStyleClass().add("comment-content");
+        contentLabel.setWrapText(true);
+        contentLabel.prefWidthProperty().bind(list.widthProperty().subtract(WRAP_INSET));
+
+        card.getChildren().addAll(header, contentLabel);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    /**
+     * Cell factory for a comment ListView
+     */
+    public static Callback<ListView<Comment>, ListCell<Comment>> forComments(Consumer<Comment> onDelete) {
+        return list -> new CommentCell(list, onDelete);
+    }
+
+    @Override
+    protected void updateItem(Comment comment, boolean empty) {
+        super.updateItem(comment, empty);
+        if (empty || comment == null) {
+            setGraphic(null);
+        } else {
+            dateLabel.setText("📅 " + comment.getDateAsString());
+            contentLabel.setText(comment.getContent());
+            setGraphic(card);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cs151.controller.cells;
+
+import cs151.controller.services.AsyncDataAccess;
+import cs151.data.CommentDAO;
+import cs151.model.Comment;
+import cs151.model.CommentSummary;
+import cs151.model.Student;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.Tooltip;
+import javafx.util.Callback;
+
+import java.util.List;
+
+/**
+ * A table cell showing a student's {@link CommentSummary}, with every comment in its tooltip
+ * The cell only sets the summary's prebuilt text. The full comments are fetched when the
+ * tooltip is about to show, so scrolling and sorting never load or join comment text.
+ */
+public class CommentSummaryCell extends TableCell<Student, CommentSummary> {
+    private static final double TOOLTIP_WIDTH = 500;
+
+    private final CommentDAO commentDao;
+    private final Tooltip tooltip = new Tooltip();
+    private long generation; // Bumped when the cell moves to another student; a tooltip load for the earlier one is dropped
+    private int shownStudentId = -1;
+
+    /**
+     * @param commentDao Source of the full comments for the tooltip
+     */
+    public CommentSummaryCell(CommentDAO commentDao) {
+        this.commentDao = commentDao;
+        getStyleClass().add("comment-summary-cell");
+        tooltip.getStyleClass().add("comment-summary-tooltip");
+        tooltip.setWrapText(true);
+        tooltip.setMaxWidth(TOOLTIP_WIDTH);
+        tooltip.setOnShowing(event -> loadFullText());
+    }
+
+    /**
+     * Cell factory for a comment summary column
+     */
+    public static Callback<TableColumn<Student, CommentSummary>, TableCell<Student, CommentSummary>> forSummaries(
+            CommentDAO commentDao) {
+        return column -> new CommentSummaryCell(commentDao);
+    }
+
+    @Override
+    protected void updateItem(CommentSummary summary, boolean empty) {
+        super.updateItem(summary, empty);
+        // Layout and refresh call this again for the same row; only a different student invalidates a load
+        Student student = empty || getTableRow() == null ? null : getTableRow().getItem();
+        int studentId = student == null ? -1 : student.getId();
+        if (studentId != shownStudentId) {
+            shownStudentId = studentId;
+            generation++;
+        }
+        if (empty || summary == null) {
+            setText(null);
+            setTooltip(null);
+        } else {
+            setText(summary.getText());
+            setTooltip(summary.getCount() > 0 ? tooltip : null);
+        }
+    }
+
+    private void loadFullText() {
+        Student student = getTableRow() == null ? null : getTableRow().getItem();
+        if (student == null) return;
+
+        long requestId = generation;
+        int studentId = student.getId();
+        tooltip.setText("Loading comments…");
+        AsyncDataAccess.load(() -> commentDao.getCommentsByStudentId(studentId), comments -> {
+            if (requestId == generation) tooltip.setText(join(comments));
+        }, error -> {
+            if (requestId == generation) tooltip.setText("Could not load comments: " + error.getMessage());
+        });
+    }
+
+    /**
+     * Every comment, newest first, one numbered paragraph each
+     */
+    private static String join(List<Comment> comments) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < comments.size(); i++) {
+            if (i > 0) sb.append("\n\n");
+            sb.append(i + 1).append(". ").append(comments.get(i).getDateAsString())
+                    .append(": ").append(comments.get(i).getContent());
+        }
+        return sb.toString();
+    }
+}
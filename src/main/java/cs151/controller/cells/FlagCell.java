@@ -0,0 +1,37 @@
+package cs151.controller.cells;
+
+import javafx.css.PseudoClass;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+/**
+ * A table cell showing a student's flag, coloured by the :whitelist and :blacklist pseudo-classes
+ * Switching a pseudo-class only re-matches the existing rules, so recycling the cell
+ * for another row does not parse any style.
+ * @param <S> The table's row type
+ */
+public class FlagCell<S> extends TableCell<S, String> {
+    private static final PseudoClass WHITELIST = PseudoClass.getPseudoClass("whitelist");
+    private static final PseudoClass BLACKLIST = PseudoClass.getPseudoClass("blacklist");
+
+    public FlagCell() {
+        getStyleClass().add("flag-cell");
+    }
+
+    /**
+     * Cell factory for a flag column
+     */
+    public static <S> Callback<TableColumn<S, String>, TableCell<S, String>> forFlags() {
+        return column -> new FlagCell<>();
+    }
+
+    @Override
+    protected void updateItem(String flag, boolean empty) {
+        super.updateItem(flag, empty);
+        boolean shown = !empty && flag != null;
+        setText(shown ? flag : null);
+        pseudoClassStateChanged(WHITELIST, shown && "Whitelist".equals(flag));
+        pseudoClassStateChanged(BLACKLIST, shown && "Blacklist".equals(flag));
+    }
+}
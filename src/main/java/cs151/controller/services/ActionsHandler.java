@@ -1,9 +1,14 @@
 package cs151.controller.services;
 
-import cs151.model.Student;
+import java.util.concurrent.CompletableFuture;
 
 public interface ActionsHandler<T> {
     void handleView(T item, Runnable onClose);
     void handleEdit(T item);
-    boolean handleDelete(T item);
+
+    /**
+     * Ask the user to confirm, then delete in the background
+     * @return Completes with true if the item was deleted, false if the user cancelled or it failed
+     */
+    CompletableFuture<Boolean> handleDelete(T item);
 }
@@ -0,0 +1,126 @@
+package cs151.controller.services;
+
+import javafx.application.Platform;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs DAO calls off the JavaFX application thread
+ *
+ * Each call gets its own virtual thread and returns a CompletableFuture; the load/onFxThread
+ * helpers hand the result back on the FX thread. Cancelling the returned future (or letting
+ * it time out) interrupts the worker, which also stops it waiting for a pooled connection.
+ * The connection pool still bounds how many queries run against SQLite at once.
+ */
+public final class AsyncDataAccess {
+
+    /** Per-call limit unless one is given, configurable with -Dcs151.async.timeoutMs */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(Long.getLong("cs151.async.timeoutMs", 30_000));
+
+    /** Runs callbacks on the FX thread (directly if already on it) */
+    public static final Executor FX_THREAD = command -> {
+        if (Platform.isFxApplicationThread()) {
+            command.run();
+        } else {
+            Platform.runLater(command);
+        }
+    };
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dao-", 0).factory());
+
+    private AsyncDataAccess() {
+    }
+
+    /**
+     * Run a call on a virtual thread with the default timeout
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> call) {
+        return supply(call, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Run a call on a virtual thread
+     * @param timeout How long the call may take before the future fails with a TimeoutException (null for no limit)
+     * @return A future for the result; cancelling it interrupts the call
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> call, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> worker = EXECUTOR.submit(() -> {
+            try {
+                result.complete(call.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        // Cancelled or timed out: stop the worker too (no-op once it has finished)
+        result.whenComplete((value, error) -> {
+            if (error != null) worker.cancel(true);
+        });
+        return timeout == null ? result : result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run a call in the background and pass its result to the FX thread; failures are logged
+     */
+    public static <T> CompletableFuture<T> load(Callable<T> call, Consumer<? super T> onResult) {
+        return load(call, onResult, null);
+    }
+
+    /**
+     * Run a call in the background and pass its result or failure to the FX thread
+     * @return The future of the call itself, so the caller can cancel it
+     */
+    public static <T> CompletableFuture<T> load(Callable<T> call, Consumer<? super T> onResult, Consumer<Throwable> onError) {
+        return onFxThread(supply(call), onResult, onError);
+    }
+
+    /**
+     * Deliver the outcome of a future on the FX thread. Nothing is delivered if the future was cancelled.
+     * @param onError Called with the underlying cause; if null the failure is logged
+     * @return The same future
+     */
+    public static <T> CompletableFuture<T> onFxThread(CompletableFuture<T> future, Consumer<? super T> onResult,
+                                                      Consumer<Throwable> onError) {
+        future.whenCompleteAsync((value, error) -> {
+            if (future.isCancelled()) return;
+            if (error == null) {
+                onResult.accept(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (onError != null) {
+                onError.accept(cause);
+            } else {
+                System.err.println("Background data call failed: " + cause);
+                cause.printStackTrace();
+            }
+        }, FX_THREAD);
+        return future;
+    }
+
+    /**
+     * Stop accepting calls and interrupt the ones still running
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,159 @@
+package cs151.controller.services;
+
+import cs151.data.CommentDAO;
+import cs151.data.CommentPage;
+import cs151.data.DataChange;
+import cs151.model.Comment;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+
+/**
+ * Fills a comment ListView one keyset page at a time, newest first
+ * The ListView only creates cells for the rows on screen, and older comments are fetched
+ * when the user scrolls near the end of what is loaded, so a student with thousands of
+ * comments costs the same as one with a handful. Comments added or deleted anywhere are
+ * inserted into or removed from the list as single rows.
+ */
+public class CommentPageLoader {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    // Fetch the next page once the view is this close (0..1) to the end of the loaded rows
+    private static final double PREFETCH_POSITION = 0.9;
+    // The (date DESC, id DESC) order of the keyset pages
+    private static final Comparator<Comment> PAGE_ORDER = Comparator
+            .comparing(Comment::getDate).thenComparingInt(Comment::getId).reversed();
+
+    private final CommentDAO commentDao;
+    private final ListView<Comment> list;
+    private final int pageSize;
+    private final ObservableList<Comment> items = FXCollections.observableArrayList();
+
+    private int studentId;
+    private boolean hasNext;
+    private boolean loading;
+    private long generation; // bumped by every page request; older results are dropped
+    private CompletableFuture<CommentPage> pendingPage;
+    private IntConsumer onCountChanged;
+
+    public CommentPageLoader(CommentDAO commentDao, ListView<Comment> list) {
+        this(commentDao, list, DEFAULT_PAGE_SIZE);
+    }
+
+    public CommentPageLoader(CommentDAO commentDao, ListView<Comment> list, int pageSize) {
+        this.commentDao = commentDao;
+        this.list = list;
+        this.pageSize = pageSize;
+
+        list.setItems(items);
+
+        // The VirtualFlow only exists once the list has a skin
+        if (list.getSkin() != null) {
+            attachScrollListener();
+        } else {
+            list.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+                if (newSkin != null) Platform.runLater(this::attachScrollListener);
+            });
+        }
+
+        DataChangeSubscriber.subscribe(list, this::onDataChange);
+    }
+
+    /**
+     * Called with the student's number of comments when it is first read and after every change
+     */
+    public void setOnCountChanged(IntConsumer listener) {
+        this.onCountChanged = listener;
+    }
+
+    /**
+     * Show a student's comments from the newest one
+     */
+    public void load(int studentId) {
+        this.studentId = studentId;
+        request(null);
+        AsyncDataAccess.load(() -> commentDao.getCommentCountByStudentId(studentId), count -> {
+            if (studentId == this.studentId) notifyCount(count);
+        });
+    }
+
+    private void loadNext() {
+        if (loading || !hasNext || items.isEmpty()) return;
+        request(items.get(items.size() - 1));
+    }
+
+    /**
+     * Fetch a page in the background and add it on the FX thread, dropping any request still in flight
+     * @param after Last loaded comment, or null to start again from the newest
+     */
+    private void request(Comment after) {
+        if (pendingPage != null) pendingPage.cancel(true);
+        long requestId = ++generation;
+        int id = studentId;
+        loading = true;
+        pendingPage = AsyncDataAccess.load(() -> after == null
+                ? commentDao.getFirstCommentPage(id, pageSize)
+                : commentDao.getCommentPageAfter(id, after, pageSize), page -> {
+            if (requestId != generation) return; // superseded after it finished
+            loading = false;
+            if (after == null) {
+                items.setAll(page.getComments());
+                if (!items.isEmpty()) list.scrollTo(0);
+            } else {
+                items.addAll(page.getComments());
+            }
+            hasNext = page.hasNext();
+        }, error -> {
+            if (requestId != generation) return;
+            loading = false;
+            System.err.println("Error loading comment page: " + error.getMessage());
+        });
+    }
+
+    /**
+     * Insert or remove the one comment that changed; the count comes with the change
+     */
+    private void onDataChange(DataChange change) {
+        switch (change) {
+            case DataChange.CommentAdded added when added.studentId() == studentId -> {
+                Comment comment = added.comment();
+                notifyCount(added.commentCount());
+                // A page fetched after the insert committed may already hold it
+                if (items.stream().anyMatch(item -> item.getId() == comment.getId())) return;
+                int index = 0;
+                while (index < items.size() && PAGE_ORDER.compare(items.get(index), comment) < 0) index++;
+                // Past the loaded rows it belongs to a page that is not loaded yet
+                if (index < items.size() || !hasNext) items.add(index, comment);
+            }
+            case DataChange.CommentDeleted deleted when deleted.studentId() == studentId -> {
+                if (deleted.commentId() == 0) {
+                    items.clear();
+                    hasNext = false;
+                } else {
+                    items.removeIf(comment -> comment.getId() == deleted.commentId());
+                }
+                notifyCount(deleted.commentCount());
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void attachScrollListener() {
+        if (!(list.lookup(".virtual-flow") instanceof VirtualFlow<?> flow)) return;
+        flow.positionProperty().addListener((obs, oldPos, newPos) -> {
+            if (newPos.doubleValue() >= PREFETCH_POSITION && newPos.doubleValue() > oldPos.doubleValue()) {
+                Platform.runLater(this::loadNext);
+            }
+        });
+    }
+
+    private void notifyCount(int count) {
+        if (onCountChanged != null) onCountChanged.accept(count);
+    }
+}
@@ -5,13 +5,12 @@ import cs151.data.CommentDAO;
 import cs151.data.StudentDAO;
 import cs151.model.Comment;
 import cs151.controller.StudentProfileReportController;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class CommentsActionsHandler implements ActionsHandler<Comment> {
 
@@ -25,13 +24,13 @@ public class CommentsActionsHandler implements ActionsHandler<Comment> {
     @Override
     public void handleView(Comment comment, Runnable onClose) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/cs151/application/comment-detail-view.fxml"));
+            ViewRegistry.Loaded<CommentDetailController> view = ViewRegistry.load(ViewRegistry.View.COMMENT_DETAIL);
             Stage stage = new Stage();
-            stage.setScene(new Scene(loader.load(), 600, 450));
-            stage.setTitle("Comment Detail");
+            stage.setScene(view.scene());
+            stage.setTitle(ViewRegistry.View.COMMENT_DETAIL.getTitle());
 
             // Set the comment in the detail controller
-            CommentDetailController controller = loader.getController();
+            CommentDetailController controller = view.controller();
             controller.setComment(comment);
 
             // Optional callback when window closes
@@ -56,7 +55,7 @@ public class CommentsActionsHandler implements ActionsHandler<Comment> {
     }
 
     @Override
-    public boolean handleDelete(Comment comment) {
+    public CompletableFuture<Boolean> handleDelete(Comment comment) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Delete Comment");
         alert.setHeaderText("Delete Comment");
@@ -69,8 +68,8 @@ public class CommentsActionsHandler implements ActionsHandler<Comment> {
 
         Optional<ButtonType> response = alert.showAndWait();
         if (response.isPresent() && response.get() == ButtonType.OK) {
-            return commentDao.deleteComment(comment.getId());
+            return AsyncDataAccess.supply(() -> commentDao.deleteComment(comment.getId()));
         }
-        return false;
+        return CompletableFuture.completedFuture(false);
     }
 }
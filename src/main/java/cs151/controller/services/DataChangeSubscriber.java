@@ -0,0 +1,58 @@
+package cs151.controller.services;
+
+import cs151.data.DataChange;
+import cs151.data.DataChangeBus;
+import javafx.beans.value.ChangeListener;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Subscribes a view to {@link DataChangeBus} for as long as it is on screen
+ * Changes are handled on the FX thread. The subscription ends when the window showing
+ * the view closes, or when its scene is replaced (NavigationHandler switching pages),
+ * so closed views are not kept alive by the bus. Scenes ViewRegistry keeps for reuse stay
+ * subscribed while off screen, so they are current when shown again.
+ */
+public final class DataChangeSubscriber {
+
+    private DataChangeSubscriber() {
+    }
+
+    /**
+     * @param owner Any node of the view; its window decides how long the subscription lasts
+     * @param onChange Called on the FX thread for every change
+     */
+    public static DataChangeBus.Subscription subscribe(Node owner, Consumer<? super DataChange> onChange) {
+        DataChangeBus.Subscription subscription = DataChangeBus.subscribe(AsyncDataAccess.FX_THREAD, onChange);
+
+        EventHandler<WindowEvent> onHidden = event -> subscription.cancel();
+        ChangeListener<Window> windowListener = (obs, oldWindow, newWindow) -> {
+            if (oldWindow != null) oldWindow.removeEventHandler(WindowEvent.WINDOW_HIDDEN, onHidden);
+            if (oldWindow != null && newWindow == null && !ViewRegistry.isRetained(owner.getScene())) {
+                subscription.cancel(); // scene taken off its window
+            }
+            if (newWindow != null) newWindow.addEventHandler(WindowEvent.WINDOW_HIDDEN, onHidden);
+        };
+        Consumer<Scene> watchScene = scene -> {
+            scene.windowProperty().addListener(windowListener);
+            if (scene.getWindow() != null) scene.getWindow().addEventHandler(WindowEvent.WINDOW_HIDDEN, onHidden);
+        };
+
+        // Controllers usually subscribe in initialize(), before the view is in a scene
+        if (owner.getScene() != null) watchScene.accept(owner.getScene());
+        owner.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null) oldScene.windowProperty().removeListener(windowListener);
+            if (newScene != null) {
+                watchScene.accept(newScene);
+            } else if (oldScene != null) {
+                subscription.cancel(); // view removed from its scene
+            }
+        });
+        return subscription;
+    }
+}
@@ -0,0 +1,52 @@
+package cs151.controller.services;
+
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+
+/**
+ * Runs an action once input has been quiet for a while
+ * Each call restarts the delay, so a burst of keystrokes runs the action once, with the
+ * latest value. Everything happens on the FX thread; no extra threads are involved.
+ */
+public class Debouncer {
+    private final PauseTransition pause;
+    private Runnable action;
+
+    /**
+     * @param delayMillis How long the input must stay unchanged before the action runs
+     */
+    public Debouncer(long delayMillis) {
+        pause = new PauseTransition(Duration.millis(delayMillis));
+        pause.setOnFinished(e -> runNow());
+    }
+
+    /**
+     * Run the action after the delay, replacing any action still waiting
+     */
+    public void call(Runnable action) {
+        this.action = action;
+        pause.playFromStart();
+    }
+
+    /**
+     * Run the waiting action right away (e.g. when the user presses Enter)
+     */
+    public void flush() {
+        pause.stop();
+        runNow();
+    }
+
+    /**
+     * Drop the waiting action without running it
+     */
+    public void cancel() {
+        pause.stop();
+        action = null;
+    }
+
+    private void runNow() {
+        Runnable pending = action;
+        action = null;
+        if (pending != null) pending.run();
+    }
+}
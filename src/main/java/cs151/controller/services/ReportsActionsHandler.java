@@ -1,15 +1,13 @@
 package cs151.controller.services;
 
-import cs151.application.Main;
 import cs151.controller.StudentProfileReportController;
 import cs151.data.StudentDAO;
 import cs151.model.Student;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public class ReportsActionsHandler implements ActionsHandler<Student> {
 
@@ -22,12 +20,12 @@ public class ReportsActionsHandler implements ActionsHandler<Student> {
     @Override
     public void handleView(Student student, Runnable onClose) {
         try {
-            FXMLLoader loader = new FXMLLoader(Main.class.getResource("student-profile-report-view.fxml"));
+            ViewRegistry.Loaded<StudentProfileReportController> view = ViewRegistry.load(ViewRegistry.View.PROFILE_REPORT);
             Stage stage = new Stage();
-            stage.setScene(new Scene(loader.load(), 900, 700));
+            stage.setScene(view.scene());
             stage.setTitle("Student Profile Report - " + student.getName());
 
-            StudentProfileReportController controller = loader.getController();
+            StudentProfileReportController controller = view.controller();
             controller.setStudent(student);
 
             stage.show();
@@ -43,7 +41,7 @@ public class ReportsActionsHandler implements ActionsHandler<Student> {
     }
 
     @Override
-    public boolean handleDelete(Student item) {
+    public CompletableFuture<Boolean> handleDelete(Student item) {
         throw new UnsupportedOperationException("Delete is not supported in Reports view.");
     }
 }
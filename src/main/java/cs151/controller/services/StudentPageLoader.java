@@ -0,0 +1,339 @@
+package cs151.controller.services;
+
+import cs151.data.DataChange;
+import cs151.data.StudentDAO;
+import cs151.data.StudentPage;
+import cs151.data.StudentQuery;
+import cs151.model.Student;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Fills a student TableView one keyset page at a time
+ * The first page is loaded up front; the next (or previous) page is fetched when the
+ * user scrolls to the bottom (or top) of what is loaded, so opening the table costs the
+ * same whatever the size of the Student table. Rows stay in (name, id) order, so client-side
+ * column sorting is turned off. Pages and counts are fetched through {@link AsyncDataAccess};
+ * a newer request (reload, filter change, jump) supersedes one still in flight.
+ * At most MAX_LOADED_PAGES pages are held; loading one more drops a page's worth of rows
+ * from the other end, which is fetched again if the user scrolls back to it.
+ * Changes published on the DataChangeBus are patched into the loaded rows while the table is shown.
+ */
+public class StudentPageLoader {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    // Fetch the next page once the view is this close (0..1) to the end of the loaded rows
+    private static final double PREFETCH_POSITION = 0.9;
+    // Pages kept in the table at once while scrolling
+    private static final int MAX_LOADED_PAGES = 5;
+    // The (name COLLATE NOCASE, id) order of the keyset pages
+    private static final Comparator<Student> PAGE_ORDER = Comparator
+            .comparing(Student::getName, StudentPageLoader::compareNoCase)
+            .thenComparingInt(Student::getId);
+
+    private final StudentDAO studentDao;
+    private final TableView<Student> table;
+    private final int pageSize;
+    private final ObservableList<Student> items = FXCollections.observableArrayList();
+
+    private StudentQuery query = StudentQuery.all();
+    private boolean hasPrevious;
+    private boolean hasNext;
+    private boolean loading;
+    private long generation; // bumped by every page request; older results are dropped
+    private CompletableFuture<StudentPage> pendingPage;
+    private VirtualFlow<?> flow;
+    private CompletableFuture<Integer> pendingCount;
+    private int totalCount;
+    private IntConsumer onTotalCountChanged;
+
+    public StudentPageLoader(StudentDAO studentDao, TableView<Student> table) {
+        this(studentDao, table, DEFAULT_PAGE_SIZE);
+    }
+
+    public StudentPageLoader(StudentDAO studentDao, TableView<Student> table, int pageSize) {
+        this.studentDao = studentDao;
+        this.table = table;
+        this.pageSize = pageSize;
+
+        table.setItems(items);
+        table.getColumns().forEach(column -> column.setSortable(false));
+        table.getColumns().addListener((ListChangeListener<TableColumn<Student, ?>>) change -> {
+            while (change.next()) {
+                change.getAddedSubList().forEach(column -> column.setSortable(false));
+            }
+        });
+
+        // The VirtualFlow only exists once the table has a skin
+        if (table.getSkin() != null) {
+            attachScrollListener();
+        } else {
+            table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+                if (newSkin != null) Platform.runLater(this::attachScrollListener);
+            });
+        }
+
+        DataChangeSubscriber.subscribe(table, this::onDataChange);
+    }
+
+    /**
+     * Called with the total number of matching students whenever it is (re)counted
+     */
+    public void setOnTotalCountChanged(IntConsumer listener) {
+        this.onTotalCountChanged = listener;
+    }
+
+    /**
+     * Show only the students the query selects and start again from the first page
+     */
+    public void setQuery(StudentQuery query) {
+        this.query = query;
+        reload();
+    }
+
+    /**
+     * Start again from the first page and recount
+     */
+    public void reload() {
+        StudentQuery currentQuery = query;
+        request(() -> studentDao.getFirstStudentPage(currentQuery, pageSize), this::showPage);
+        recount();
+    }
+
+    /**
+     * Jump to the first student whose name is at or after the prefix
+     */
+    public void jumpTo(String prefix) {
+        StudentQuery currentQuery = query;
+        request(() -> {
+            StudentPage page = studentDao.getStudentPageStartingAt(currentQuery, prefix, pageSize);
+            if (page.isEmpty() && prefix != null && !prefix.isBlank()) {
+                // Past the last name: show the final page instead of an empty table
+                page = studentDao.getStudentPageBefore(currentQuery, new Student(Integer.MAX_VALUE, prefix, ""), pageSize);
+            }
+            return page;
+        }, this::showPage);
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Patch the loaded rows for a change made anywhere in the application: one row is replaced,
+     * inserted or removed and the total adjusted, without reading the page again. Only when a
+     * filtered total cannot be known from the loaded rows is it counted again.
+     */
+    private void onDataChange(DataChange change) {
+        switch (change) {
+            case DataChange.StudentCreated created -> {
+                if (query.matches(created.student())) {
+                    place(new Student(created.student())); // the event's student is shared by every listener
+                    adjustTotal(1);
+                }
+            }
+            case DataChange.StudentUpdated updated -> {
+                Student student = new Student(updated.student());
+                boolean wasShown = removeRow(student.getId()) != null;
+                boolean matches = query.matches(student);
+                if (matches) place(student);
+                if (wasShown && !matches) {
+                    adjustTotal(-1);
+                } else if (!wasShown && !query.isUnfiltered()) {
+                    recount(); // it may or may not have matched before
+                }
+            }
+            case DataChange.StudentDeleted deleted -> {
+                if (removeRow(deleted.studentId()) != null || query.isUnfiltered()) {
+                    adjustTotal(-1);
+                } else {
+                    recount();
+                }
+            }
+            case DataChange.CommentChange comments -> {
+                int index = indexOf(comments.studentId());
+                if (index >= 0) {
+                    Student student = items.get(index);
+                    comments.applyTo(student);
+                    if (query.matches(student)) {
+                        items.set(index, student); // redraw the row
+                    } else {
+                        items.remove(index);
+                        adjustTotal(-1);
+                    }
+                } else if (query.getCommentCount() != null) {
+                    recount();
+                }
+            }
+            case DataChange.LanguageChanged language -> {
+                for (Student student : items) {
+                    student.setLanguages(language.applyTo(student.getLanguages()));
+                }
+                table.refresh();
+            }
+        }
+    }
+
+    /**
+     * Insert a student at its place in (name, id) order if that place is inside the loaded rows;
+     * otherwise it belongs to a page that is not loaded and will show up when that page is
+     */
+    private void place(Student student) {
+        int index = 0;
+        while (index < items.size() && PAGE_ORDER.compare(items.get(index), student) < 0) index++;
+        if (index == 0 && hasPrevious) return;
+        if (index == items.size() && hasNext) return;
+        items.add(index, student);
+    }
+
+    private Student removeRow(int studentId) {
+        int index = indexOf(studentId);
+        return index >= 0 ? items.remove(index) : null;
+    }
+
+    private int indexOf(int studentId) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getId() == studentId) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * SQLite's NOCASE collation: only ASCII letters are folded, and the rest compares as UTF-8
+     * bytes, i.e. by code point (String.CASE_INSENSITIVE_ORDER also folds other letters)
+     */
+    private static int compareNoCase(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+            if (ca >= 'A' && ca <= 'Z') ca += 'a' - 'A';
+            if (cb >= 'A' && cb <= 'Z') cb += 'a' - 'A';
+            if (ca != cb) return Integer.compare(ca, cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    private void adjustTotal(int delta) {
+        totalCount = Math.max(0, totalCount + delta);
+        notifyTotalCount();
+    }
+
+    private void showPage(StudentPage page) {
+        items.setAll(page.getStudents());
+        hasPrevious = page.hasPrevious();
+        hasNext = page.hasNext();
+        if (!items.isEmpty()) table.scrollTo(0);
+    }
+
+    private void loadNext() {
+        if (loading || !hasNext || items.isEmpty()) return;
+        StudentQuery currentQuery = query;
+        Student last = items.get(items.size() - 1);
+        request(() -> studentDao.getStudentPageAfter(currentQuery, last, pageSize), page -> {
+            items.addAll(page.getStudents());
+            hasNext = page.hasNext();
+            dropFirstRows();
+        });
+    }
+
+    private void loadPrevious() {
+        if (loading || !hasPrevious || items.isEmpty()) return;
+        StudentQuery currentQuery = query;
+        Student first = items.get(0);
+        request(() -> studentDao.getStudentPageBefore(currentQuery, first, pageSize), page -> {
+            items.addAll(0, page.getStudents());
+            hasPrevious = page.hasPrevious();
+            // Keep the row the user was looking at in place
+            table.scrollTo(page.getStudents().size());
+            dropLastRows();
+        });
+    }
+
+    /**
+     * Drop the rows above the loaded window after a page was added at the end
+     */
+    private void dropFirstRows() {
+        int excess = items.size() - pageSize * MAX_LOADED_PAGES;
+        if (excess <= 0) return;
+        int firstVisible = flow != null && flow.getFirstVisibleCell() != null
+                ? flow.getFirstVisibleCell().getIndex() : -1;
+        items.remove(0, excess);
+        hasPrevious = true;
+        // Keep the row the user was looking at in place
+        if (firstVisible >= 0) table.scrollTo(Math.max(0, firstVisible - excess));
+    }
+
+    /**
+     * Drop the rows below the loaded window after a page was added at the start
+     */
+    private void dropLastRows() {
+        int excess = items.size() - pageSize * MAX_LOADED_PAGES;
+        if (excess <= 0) return;
+        items.remove(items.size() - excess, items.size());
+        hasNext = true;
+    }
+
+    /**
+     * Fetch a page in the background and apply it on the FX thread, dropping any request still in flight
+     */
+    private void request(Callable<StudentPage> query, Consumer<StudentPage> apply) {
+        if (pendingPage != null) pendingPage.cancel(true);
+        long requestId = ++generation;
+        loading = true;
+        pendingPage = AsyncDataAccess.load(query, page -> {
+            if (requestId != generation) return; // superseded after it finished
+            loading = false;
+            apply.accept(page);
+        }, error -> {
+            if (requestId != generation) return;
+            loading = false;
+            System.err.println("Error loading student page: " + error.getMessage());
+        });
+    }
+
+    private void attachScrollListener() {
+        if (!(table.lookup(".virtual-flow") instanceof VirtualFlow<?> flow)) return;
+        this.flow = flow;
+        flow.positionProperty().addListener((obs, oldPos, newPos) -> {
+            double position = newPos.doubleValue();
+            if (position >= PREFETCH_POSITION && position > oldPos.doubleValue()) {
+                Platform.runLater(this::loadNext);
+            } else if (position <= 0.0 && oldPos.doubleValue() > 0.0) {
+                Platform.runLater(this::loadPrevious);
+            }
+        });
+    }
+
+    /**
+     * COUNT(*) still reads the whole index, so it runs off the FX thread and the label
+     * fills in when it is done; the first page never waits for it
+     */
+    private void recount() {
+        if (pendingCount != null) pendingCount.cancel(true);
+        StudentQuery countedQuery = query;
+        pendingCount = AsyncDataAccess.load(() -> studentDao.countStudents(countedQuery), count -> {
+            if (!Objects.equals(countedQuery, query)) return; // filter changed meanwhile
+            totalCount = count;
+            notifyTotalCount();
+        });
+    }
+
+    private void notifyTotalCount() {
+        if (onTotalCountChanged != null) onTotalCountChanged.accept(totalCount);
+    }
+}
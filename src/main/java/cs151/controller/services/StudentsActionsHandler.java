@@ -1,13 +1,10 @@
 package cs151.controller.services;
 
-import cs151.application.Main;
 import cs151.controller.CommentsController;
 import cs151.data.StudentDAO;
 import cs151.model.Student;
 import cs151.controller.StudentDetailController;
 import cs151.controller.StudentsController;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.ButtonType;
 import javafx.stage.Stage;
 import javafx.scene.control.Alert;
@@ -15,6 +12,7 @@ import javafx.scene.control.Alert.AlertType;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class StudentsActionsHandler implements ActionsHandler<Student> {
     private final StudentDAO studentDao;
@@ -27,14 +25,14 @@ public class StudentsActionsHandler implements ActionsHandler<Student> {
     @Override
     public void handleView(Student student, Runnable onWindowClose) {
         try {
-            // Load the FXML for the detailed view
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/cs151/application/student-detail-view.fxml"));
+            // Load the detailed view
+            ViewRegistry.Loaded<StudentDetailController> view = ViewRegistry.load(ViewRegistry.View.STUDENT_DETAIL);
             Stage stage = new Stage();
-            stage.setScene(new javafx.scene.Scene(loader.load(), 900, 600));
+            stage.setScene(view.scene());
             stage.setTitle("Student Details - " + student.getName());
 
             // Pass the student data to the controller
-            StudentDetailController controller = loader.getController();
+            StudentDetailController controller = view.controller();
             controller.setActionsHandler(this);
             controller.setStudent(student);
 
@@ -52,7 +50,7 @@ public class StudentsActionsHandler implements ActionsHandler<Student> {
     }
 
     @Override
-    public boolean handleDelete(Student student) {
+    public CompletableFuture<Boolean> handleDelete(Student student) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Delete Student");
         alert.setHeaderText("Delete Student Profile");
@@ -60,20 +58,20 @@ public class StudentsActionsHandler implements ActionsHandler<Student> {
 
         Optional<ButtonType> response = alert.showAndWait();
         if (response.isPresent() && response.get() == ButtonType.OK) {
-            return studentDao.deleteStudent(student.getId());
+            return AsyncDataAccess.supply(() -> studentDao.deleteStudent(student.getId()));
         }
-        return false;
+        return CompletableFuture.completedFuture(false);
     }
 
     @Override
     public void handleEdit(Student student) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/cs151/application/students-view.fxml"));
+            ViewRegistry.Loaded<StudentsController> view = ViewRegistry.load(ViewRegistry.View.STUDENTS, 1000, 800);
             Stage stage = new Stage();
-            stage.setScene(new Scene(loader.load(), 1000, 800));
+            stage.setScene(view.scene());
             stage.setTitle("Edit Student - " + student.getName());
 
-            StudentsController controller = loader.getController();
+            StudentsController controller = view.controller();
             controller.handleEdit(student);
 
             stage.show();
@@ -84,12 +82,12 @@ public class StudentsActionsHandler implements ActionsHandler<Student> {
 
     public void viewAllComments(Student student, Stage mainStage) {
         try {
-            FXMLLoader loader = new FXMLLoader(Main.class.getResource("/cs151/application/comments-view.fxml"));
+            ViewRegistry.Loaded<CommentsController> view = ViewRegistry.load(ViewRegistry.View.COMMENTS);
             Stage stage = new Stage();
-            stage.setScene(new Scene(loader.load(), 900, 800));
+            stage.setScene(view.scene());
             stage.setTitle("Comments for " + student.getName());
 
-            CommentsController controller = loader.getController();
+            CommentsController controller = view.controller();
             controller.setStudent(student, mainStage);
 
             stage.show();
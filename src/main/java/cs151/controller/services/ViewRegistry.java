@@ -0,0 +1,250 @@
+package cs151.controller.services;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loads the FXML views and switches the main window between its pages
+ * Home, Search and Reports are built once and their scenes reused, so switching between
+ * them is only a setScene. They stay subscribed to data changes while off screen, so they
+ * are up to date when shown again. The other views hold per-window state (the student being
+ * edited, the comments shown) and are loaded fresh each time, from FXML text read ahead of time.
+ * The time from a switch to the new scene's first layout pulse is recorded per view.
+ */
+public final class ViewRegistry {
+
+    public enum View {
+        HOME("hello-view.fxml", "Student Information Management System", 900, 800, true),
+        LANGUAGES("languages-view.fxml", "Define Programming Languages", 900, 800, false),
+        STUDENTS("students-view.fxml", "Student Management", 1200, 900, false),
+        SEARCH("search-view.fxml", "Search Students", 1150, 800, true),
+        REPORTS("reports-view.fxml", "Student Reports", 1150, 800, true),
+        STATISTICS("statistics-view.fxml", "Student Statistics", 1100, 800, false),
+        COMMENTS("comments-view.fxml", "Comments", 900, 800, false),
+        COMMENT_DETAIL("comment-detail-view.fxml", "Comment Detail", 600, 450, false),
+        STUDENT_DETAIL("student-detail-view.fxml", "Student Details", 900, 600, false),
+        PROFILE_REPORT("student-profile-report-view.fxml", "Student Profile Report", 900, 700, false);
+
+        private final String fxml;
+        private final String title;
+        private final double width;
+        private final double height;
+        private final boolean retained;
+
+        View(String fxml, String title, double width, double height, boolean retained) {
+            this.fxml = fxml;
+            this.title = title;
+            this.width = width;
+            this.height = height;
+            this.retained = retained;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        URL getUrl() {
+            return ViewRegistry.class.getResource("/cs151/application/" + fxml);
+        }
+    }
+
+    /**
+     * A freshly loaded view
+     */
+    public record Loaded<C>(Scene scene, C controller) {
+    }
+
+    // Marks a scene kept for reuse; DataChangeSubscriber keeps its subscriptions when it leaves the window
+    static final String RETAINED_KEY = ViewRegistry.class.getName() + ".retained";
+    private static final Pattern CONTROLLER = Pattern.compile("fx:controller=\"([\\w.$]+)\"");
+
+    private static final Map<View, byte[]> sources = new ConcurrentHashMap<>();
+    private static final Map<View, Scene> retainedScenes = new EnumMap<>(View.class); // FX thread only
+    private static final Map<View, Latency> latencies = new EnumMap<>(View.class);     // FX thread only
+
+    private ViewRegistry() {
+    }
+
+    /**
+     * Switch a window to one of the main pages
+     */
+    public static void show(Stage stage, View view) {
+        long start = System.nanoTime();
+        try {
+            Scene scene = view.retained ? retainedScene(view) : build(view, view.width, view.height).scene();
+            if (scene.getWindow() instanceof Stage owner && owner != stage && owner.isShowing()) {
+                // A reused scene belongs to one window; moving it would leave that window blank
+                System.err.println(view.fxml + " is shown in another window; not moving it");
+                return;
+            }
+            timeFirstLayout(view, scene, start);
+            stage.setTitle(view.title);
+            stage.setScene(scene);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Error loading " + view.fxml + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load a new instance of a view, e.g. for a popup window, at the view's usual size
+     */
+    public static <C> Loaded<C> load(View view) throws IOException {
+        return load(view, view.width, view.height);
+    }
+
+    /**
+     * Load a new instance of a view at the given size
+     */
+    public static <C> Loaded<C> load(View view, double width, double height) throws IOException {
+        long start = System.nanoTime();
+        Loaded<C> loaded = build(view, width, height);
+        timeFirstLayout(view, loaded.scene(), start);
+        return loaded;
+    }
+
+    /**
+     * Once the window has drawn its first frame, read every view's FXML and load its controller
+     * class on a background thread, then build the reused pages one at a time on the FX thread
+     */
+    public static void preload(Stage stage) {
+        if (stage.getScene() == null) return;
+        onNextLayout(stage.getScene(), () -> Thread.ofVirtual().name("view-preload").start(() -> {
+            for (View view : View.values()) {
+                warm(view);
+            }
+            Platform.runLater(() -> buildRetained(0));
+        }));
+    }
+
+    /**
+     * @return One line per view that was shown, with its switch count and average / max time to first layout
+     */
+    public static String getStats() {
+        StringBuilder sb = new StringBuilder("View switches:");
+        latencies.forEach((view, latency) -> sb.append(System.lineSeparator()).append("  ")
+                .append(view.fxml).append(": ").append(latency));
+        return sb.toString();
+    }
+
+    static boolean isRetained(Scene scene) {
+        return scene != null && scene.getProperties().containsKey(RETAINED_KEY);
+    }
+
+    private static Scene retainedScene(View view) throws IOException {
+        Scene scene = retainedScenes.get(view);
+        if (scene == null) {
+            scene = build(view, view.width, view.height).scene();
+            scene.getProperties().put(RETAINED_KEY, Boolean.TRUE);
+            retainedScenes.put(view, scene);
+        }
+        return scene;
+    }
+
+    private static void buildRetained(int from) {
+        View[] views = View.values();
+        for (int i = from; i < views.length; i++) {
+            if (!views[i].retained || retainedScenes.containsKey(views[i])) continue;
+            try {
+                retainedScene(views[i]);
+            } catch (IOException e) {
+                System.err.println("Could not preload " + views[i].fxml + ": " + e.getMessage());
+            }
+            int next = i + 1;
+            Platform.runLater(() -> buildRetained(next)); // one view per event, so input is handled in between
+            return;
+        }
+    }
+
+    private static <C> Loaded<C> build(View view, double width, double height) throws IOException {
+        FXMLLoader loader = new FXMLLoader(view.getUrl()); // the location resolves @ paths such as stylesheets
+        Parent root;
+        try (InputStream in = new ByteArrayInputStream(source(view))) {
+            root = loader.load(in);
+        }
+        return new Loaded<>(new Scene(root, width, height), loader.getController());
+    }
+
+    private static byte[] source(View view) throws IOException {
+        byte[] source = sources.get(view);
+        if (source == null) {
+            URL url = view.getUrl();
+            if (url == null) throw new IOException("Missing view " + view.fxml);
+            try (InputStream in = url.openStream()) {
+                source = in.readAllBytes();
+            }
+            sources.put(view, source);
+        }
+        return source;
+    }
+
+    /**
+     * Read a view's FXML and initialize its controller class, so the first load does neither
+     */
+    private static void warm(View view) {
+        try {
+            Matcher controller = CONTROLLER.matcher(new String(source(view), StandardCharsets.UTF_8));
+            if (controller.find()) {
+                Class.forName(controller.group(1), true, ViewRegistry.class.getClassLoader());
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Could not preload " + view.fxml + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Record the time from a switch to the scene's next layout pulse, i.e. its first frame on screen
+     */
+    private static void timeFirstLayout(View view, Scene scene, long start) {
+        onNextLayout(scene, () -> latencies.computeIfAbsent(view, v -> new Latency()).record(System.nanoTime() - start));
+    }
+
+    /**
+     * Run an action once, right after the scene's next layout pulse
+     */
+    private static void onNextLayout(Scene scene, Runnable action) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            private boolean done;
+
+            @Override
+            public void run() {
+                if (done) return; // a later pulse may come before the removal below runs
+                done = true;
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+                action.run();
+            }
+        });
+    }
+
+    private static final class Latency {
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+
+        void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d switches, avg %.1f ms, max %.1f ms",
+                    count, totalNanos / 1e6 / Math.max(1, count), maxNanos / 1e6);
+        }
+    }
+}
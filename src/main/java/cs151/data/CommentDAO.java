@@ -2,51 +2,33 @@ package cs151.data;
 
 import cs151.model.Comment;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CommentDAO {
-    private static final String DB_URL = "jdbc:sqlite:student.db";
 
     /**
-     * Helper method to get a connection with foreign keys enabled
+     * Helper method to get a pooled connection (foreign keys are enabled by the pool)
      */
     private Connection getConnection() throws SQLException {
-        Connection conn = DriverManager.getConnection(DB_URL);
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute("PRAGMA foreign_keys = ON;");
-        }
-        return conn;
+        return ConnectionManager.getConnection();
     }
 
     /**
-     * Initialize Comment table if it doesn't exist
+     * Make sure the Comment table exists (the schema is managed by SchemaMigrator)
      */
     public void initTable() {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS Comment (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                student_id INTEGER NOT NULL,
-                content TEXT NOT NULL,
-                date TEXT NOT NULL,
-                FOREIGN KEY (student_id) REFERENCES Student(id) ON DELETE CASCADE
-            );
-        """;
-
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-            System.out.println("Comment table initialized successfully");
-        } catch (SQLException e) {
-            System.err.println("Error initializing Comment table: " + e.getMessage());
-            e.printStackTrace();
-        }
+        SchemaMigrator.migrate();
     }
 
     public boolean addComment(Comment comment) {
         if (!comment.isValid()) return false;
 
-        String sql = "INSERT INTO Comment(student_id, content, date) VALUES(?, ?, ?)";
+        String sql = "INSERT INTO Comment(student_id, content, date) VALUES(?, ?, ?) RETURNING id";
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -54,7 +36,27 @@ public class CommentDAO {
             stmt.setInt(1, comment.getStudentId());
             stmt.setString(2, comment.getContent());
             stmt.setString(3, comment.getDateAsString());
-            stmt.executeUpdate();
+            int id;
+            int after;
+            conn.setAutoCommit(false);
+            try {
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) return false;
+                    id = rs.getInt(1);
+                }
+                after = StatisticsDAO.countCommentsInTransaction(conn, comment.getStudentId());
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            invalidateCaches(comment.getStudentId());
+            StatisticsDAO.commentsChanged(1, after);
+            Comment added = new Comment(id, comment.getStudentId(), comment.getContent(), comment.getDate());
+            publishCommentChange(conn, comment.getStudentId(),
+                    (count, lastDate, preview) -> new DataChange.CommentAdded(added, count, lastDate, preview));
             return true;
 
         } catch (SQLException e) {
@@ -64,7 +66,15 @@ public class CommentDAO {
         }
     }
 
+    /**
+     * Get a student's comments, newest first
+     * Served from the comment cache when possible; the list and comments returned are copies.
+     */
     public List<Comment> getCommentsByStudentId(int studentId) {
+        List<Comment> cached = DataCache.comments.get(studentId);
+        if (cached != null) return copyOf(cached);
+        long stamp = DataCache.comments.stamp(studentId); // a write from here on keeps this read out of the cache
+
         List<Comment> comments = new ArrayList<>();
         String sql = "SELECT * FROM Comment WHERE student_id = ? ORDER BY date DESC";
 
@@ -74,13 +84,9 @@ public class CommentDAO {
             stmt.setInt(1, studentId);
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                comments.add(new Comment(
-                        rs.getInt("id"),
-                        rs.getInt("student_id"),
-                        rs.getString("content"),
-                        rs.getString("date")
-                ));
+                comments.add(mapComment(rs));
             }
+            DataCache.comments.putIfUnchanged(studentId, copyOf(comments), stamp);
 
         } catch (SQLException e) {
             System.err.println("Error retrieving comments: " + e.getMessage());
@@ -90,6 +96,119 @@ public class CommentDAO {
         return comments;
     }
 
+    /**
+     * First page of a student's comments, newest first
+     * @param pageSize Maximum number of comments on the page
+     */
+    public CommentPage getFirstCommentPage(int studentId, int pageSize) {
+        return getCommentPage(studentId, null, pageSize);
+    }
+
+    /**
+     * The comments that come after the given one (older, or same date and lower id)
+     * @param last Last comment of the previous page
+     */
+    public CommentPage getCommentPageAfter(int studentId, Comment last, int pageSize) {
+        return getCommentPage(studentId, last, pageSize);
+    }
+
+    /**
+     * Seek to the (date, id) cursor through idx_Comment_student_date (id is the rowid, so it is in
+     * every index entry) and read one page walking the index backwards. Every page costs the same
+     * however many comments the student has.
+     */
+    private CommentPage getCommentPage(int studentId, Comment after, int pageSize) {
+        int size = Math.max(1, pageSize);
+        String sql = after == null
+                ? "SELECT * FROM Comment WHERE student_id = ? ORDER BY date DESC, id DESC LIMIT ?"
+                : "SELECT * FROM Comment WHERE student_id = ? AND date <= ? AND (date < ? OR id < ?) "
+                  + "ORDER BY date DESC, id DESC LIMIT ?";
+
+        List<Comment> comments = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            stmt.setInt(i++, studentId);
+            if (after != null) {
+                stmt.setString(i++, after.getDateAsString());
+                stmt.setString(i++, after.getDateAsString());
+                stmt.setInt(i++, after.getId());
+            }
+            stmt.setInt(i, size + 1); // one extra row tells us whether there is more
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    comments.add(mapComment(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving comments: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        boolean hasNext = comments.size() > size;
+        if (hasNext) comments.remove(comments.size() - 1);
+        return new CommentPage(comments, hasNext);
+    }
+
+    /**
+     * Load every comment in one query and group them by student
+     * Used by bulk student loads so they don't run one query per student
+     * @return Map of student ID to that student's comments (newest first)
+     */
+    public Map<Integer, List<Comment>> getAllCommentsGroupedByStudentId() {
+        Map<Integer, List<Comment>> grouped = new HashMap<>();
+        String sql = "SELECT * FROM Comment ORDER BY student_id, date DESC";
+
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                Comment comment = mapComment(rs);
+                grouped.computeIfAbsent(comment.getStudentId(), k -> new ArrayList<>()).add(comment);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error retrieving comments: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return grouped;
+    }
+
+    /**
+     * Load the comments of the given students in one query and group them by student
+     * @return Map of student ID to that student's comments (newest first); students without comments are left out
+     */
+    public Map<Integer, List<Comment>> getCommentsGroupedByStudentIds(Collection<Integer> studentIds) {
+        Map<Integer, List<Comment>> grouped = new HashMap<>();
+        if (studentIds.isEmpty()) return grouped;
+        String sql = """
+            SELECT * FROM Comment
+            WHERE student_id IN (SELECT value FROM json_each(?))
+            ORDER BY student_id, date DESC
+        """;
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, studentIds.toString()); // [1, 2, 3] is a valid JSON array
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Comment comment = mapComment(rs);
+                    grouped.computeIfAbsent(comment.getStudentId(), k -> new ArrayList<>()).add(comment);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error retrieving comments: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return grouped;
+    }
+
     public Comment getCommentById(int id) {
         String sql = "SELECT * FROM Comment WHERE id = ?";
 
@@ -99,12 +218,7 @@ public class CommentDAO {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
-                return new Comment(
-                        rs.getInt("id"),
-                        rs.getInt("student_id"),
-                        rs.getString("content"),
-                        rs.getString("date")
-                );
+                return mapComment(rs);
             }
 
         } catch (SQLException e) {
@@ -126,7 +240,9 @@ public class CommentDAO {
             stmt.setString(1, comment.getContent());
             stmt.setString(2, comment.getDateAsString());
             stmt.setInt(3, comment.getId());
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) invalidateCaches(comment.getStudentId());
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error updating comment: " + e.getMessage());
@@ -136,13 +252,33 @@ public class CommentDAO {
     }
 
     public boolean deleteComment(int id) {
-        String sql = "DELETE FROM Comment WHERE id = ?";
+        String sql = "DELETE FROM Comment WHERE id = ? RETURNING student_id";
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+            int studentId;
+            int after;
+            conn.setAutoCommit(false);
+            try {
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) return false;
+                    studentId = rs.getInt(1);
+                } // the DELETE finishes when its result set closes, before counting
+                after = StatisticsDAO.countCommentsInTransaction(conn, studentId);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            invalidateCaches(studentId);
+            StatisticsDAO.commentsChanged(-1, after);
+            publishCommentChange(conn, studentId, (count, lastDate, preview) ->
+                    new DataChange.CommentDeleted(studentId, id, count, lastDate, preview));
+            return true;
 
         } catch (SQLException e) {
             System.err.println("Error deleting comment: " + e.getMessage());
@@ -158,7 +294,25 @@ public class CommentDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, studentId);
-            stmt.executeUpdate();
+            int deleted;
+            int after;
+            conn.setAutoCommit(false);
+            try {
+                deleted = stmt.executeUpdate();
+                after = StatisticsDAO.countCommentsInTransaction(conn, studentId);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            invalidateCaches(studentId);
+            StatisticsDAO.commentsChanged(-deleted, after);
+            if (deleted > 0) {
+                publishCommentChange(conn, studentId, (count, lastDate, preview) ->
+                        new DataChange.CommentDeleted(studentId, 0, count, lastDate, preview));
+            }
             return true;
 
         } catch (SQLException e) {
@@ -169,14 +323,18 @@ public class CommentDAO {
     }
 
     public int getCommentCountByStudentId(int studentId) {
-        String sql = "SELECT COUNT(*) as count FROM Comment WHERE student_id = ?";
+        List<Comment> cached = DataCache.comments.get(studentId);
+        if (cached != null) return cached.size();
+
+        // Kept up to date by the Comment triggers, so this is a primary-key lookup
+        String sql = "SELECT comment_count FROM Student WHERE id = ?";
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, studentId);
             ResultSet rs = stmt.executeQuery();
-            if (rs.next()) return rs.getInt("count");
+            if (rs.next()) return rs.getInt("comment_count");
 
         } catch (SQLException e) {
             System.err.println("Error counting comments: " + e.getMessage());
@@ -185,4 +343,57 @@ public class CommentDAO {
 
         return 0;
     }
+
+    /**
+     * A student's comments changed: drop its cached comments, and its cached profile,
+     * whose comment count and last comment date the triggers have just changed
+     */
+    private void invalidateCaches(int studentId) {
+        DataCache.comments.invalidate(studentId);
+        DataCache.students.invalidate(studentId);
+    }
+
+    /**
+     * Publish a comment change with the student's counters as the triggers just left them
+     */
+    private void publishCommentChange(Connection conn, int studentId, CounterChange change) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT comment_count, last_comment_date, last_comment_preview FROM Student WHERE id = ?")) {
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return; // the student is gone too
+                String lastDate = rs.getString(2);
+                DataChangeBus.publish(change.with(rs.getInt(1),
+                        lastDate == null ? null : LocalDate.parse(lastDate), rs.getString(3)));
+            }
+        }
+    }
+
+    /**
+     * Builds the change to publish from the student's counters
+     */
+    @FunctionalInterface
+    private interface CounterChange {
+        DataChange with(int commentCount, LocalDate lastCommentDate, String lastCommentPreview);
+    }
+
+    private List<Comment> copyOf(List<Comment> comments) {
+        List<Comment> copy = new ArrayList<>(comments.size());
+        for (Comment c : comments) {
+            copy.add(new Comment(c.getId(), c.getStudentId(), c.getContent(), c.getDate()));
+        }
+        return copy;
+    }
+
+    /**
+     * Build a Comment from the current row of a result set
+     */
+    private Comment mapComment(ResultSet rs) throws SQLException {
+        return new Comment(
+                rs.getInt("id"),
+                rs.getInt("student_id"),
+                rs.getString("content"),
+                rs.getString("date")
+        );
+    }
 }
@@ -0,0 +1,37 @@
+package cs151.data;
+
+import cs151.model.Comment;
+import java.util.List;
+
+/**
+ * One page of a student's comments in (date, id) order, newest first, as returned by the
+ * CommentDAO keyset queries. The last comment doubles as the cursor for the next page.
+ */
+public class CommentPage {
+    private final List<Comment> comments;
+    private final boolean hasNext;
+
+    public CommentPage(List<Comment> comments, boolean hasNext) {
+        this.comments = comments;
+        this.hasNext = hasNext;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public boolean isEmpty() {
+        return comments.isEmpty();
+    }
+
+    /**
+     * @return true if there are older comments after the last one on this page
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public Comment getLast() {
+        return comments.isEmpty() ? null : comments.get(comments.size() - 1);
+    }
+}
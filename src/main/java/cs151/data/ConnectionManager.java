@@ -0,0 +1,529 @@
+package cs151.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared connection provider for every DAO in cs151.data
+ * Keeps a small pool of long-lived SQLite connections so a DAO call does not
+ * pay for opening the database file and running the PRAGMA setup again.
+ *
+ * Connections handed out by {@link #getConnection()} are wrappers: calling
+ * close() on them returns the underlying connection to the pool, so DAOs keep
+ * using the usual try-with-resources blocks.
+ *
+ * Pool size and idle timeout can be set with the system properties
+ * cs151.db.poolSize and cs151.db.idleTimeoutMs, or with {@link #configure(int, long)}.
+ * The SQLite journal/durability settings come from the selected {@link DatabaseProfile}.
+ *
+ * Each pooled connection also caches its prepared statements by SQL text (up to
+ * cs151.db.statementCacheSize, default 32). prepareStatement(sql) hands back the cached
+ * statement, and close() on it only clears its parameters and result set, so SQLite
+ * parses and plans each DAO query once per connection instead of once per call.
+ */
+public final class ConnectionManager {
+    private static final String DB_URL = System.getProperty("cs151.db.url", "jdbc:sqlite:student.db");
+    private static final long BORROW_TIMEOUT_MS = 30_000;
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("cs151.db.statementCacheSize", 32);
+
+    private static int maxPoolSize = Integer.getInteger("cs151.db.poolSize", 4);
+    private static long idleTimeoutMs = Long.getLong("cs151.db.idleTimeoutMs", 60_000L);
+    private static DatabaseProfile profile = DatabaseProfile.fromName(System.getProperty("cs151.db.profile"));
+
+    // Idle connections, most recently used first
+    private static final Deque<PooledConnection> idle = new ArrayDeque<>();
+    // A ReentrantLock rather than a monitor: DAO calls run on virtual threads, and waiting on
+    // a monitor pins the carrier thread, which can starve the threads about to release connections
+    private static final ReentrantLock lock = new ReentrantLock();
+    private static final Condition released = lock.newCondition();
+    private static int openCount = 0;
+    // Bumped by shutdown so connections borrowed before it are closed instead of pooled
+    private static int generation = 0;
+
+    private static final AtomicLong statementHits = new AtomicLong();
+    private static final AtomicLong statementMisses = new AtomicLong();
+
+    private ConnectionManager() {
+    }
+
+    /**
+     * Change the pool settings. Connections above the new size are closed as they are released.
+     * @param poolSize Maximum number of open connections (at least 1)
+     * @param idleTimeoutMillis How long an unused connection stays open
+     */
+    public static void configure(int poolSize, long idleTimeoutMillis) {
+        lock.lock();
+        try {
+            maxPoolSize = Math.max(1, poolSize);
+            idleTimeoutMs = Math.max(0, idleTimeoutMillis);
+            evictIdle(System.currentTimeMillis());
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Select the SQLite profile used for connections opened from now on.
+     * Idle connections are closed so the next borrow picks up the new settings.
+     * @param newProfile The profile to apply
+     */
+    public static void setProfile(DatabaseProfile newProfile) {
+        lock.lock();
+        try {
+            profile = newProfile;
+            while (!idle.isEmpty()) {
+                idle.pop().closePhysical();
+                openCount--;
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        System.out.println("Database profile: " + newProfile);
+    }
+
+    public static DatabaseProfile getProfile() {
+        lock.lock();
+        try {
+            return profile;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Borrow a connection from the pool, opening a new one if needed
+     * @return A connection with foreign keys enabled; close it to return it to the pool
+     * @throws SQLException If no connection could be opened or none became free in time
+     */
+    public static Connection getConnection() throws SQLException {
+        PooledConnection pooled = borrow();
+        return pooled.newHandle();
+    }
+
+    /**
+     * Close every idle connection. Connections currently in use are closed when released.
+     * The pool stays usable: a later borrow opens a new connection.
+     */
+    public static void shutdown() {
+        lock.lock();
+        try {
+            generation++;
+            while (!idle.isEmpty()) {
+                idle.pop().closePhysical();
+                openCount--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return How often prepareStatement was served from a connection's statement cache
+     */
+    public static long getStatementCacheHits() {
+        return statementHits.get();
+    }
+
+    /**
+     * @return How often prepareStatement had to ask SQLite to compile the statement
+     */
+    public static long getStatementCacheMisses() {
+        return statementMisses.get();
+    }
+
+    public static String getStatementCacheStats() {
+        long hits = statementHits.get();
+        long misses = statementMisses.get();
+        long total = hits + misses;
+        return String.format("Statement cache: %d hits, %d misses (%.0f%% hit rate)",
+                hits, misses, total == 0 ? 0.0 : 100.0 * hits / total);
+    }
+
+    private static PooledConnection borrow() throws SQLException {
+        long deadline = System.currentTimeMillis() + BORROW_TIMEOUT_MS;
+        int openedIn;
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                evictIdle(now);
+
+                if (!idle.isEmpty()) {
+                    return idle.pop();
+                }
+                if (openCount < maxPoolSize) {
+                    openCount++;
+                    openedIn = generation;
+                    break;
+                }
+
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    throw new SQLException("Timed out waiting for a database connection");
+                }
+                try {
+                    released.await(remaining, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a database connection", e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Open outside the lock so other threads can keep borrowing idle connections
+        DatabaseProfile currentProfile = getProfile();
+        try {
+            return new PooledConnection(openPhysical(currentProfile), currentProfile, openedIn);
+        } catch (SQLException e) {
+            lock.lock();
+            try {
+                openCount--;
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private static void release(PooledConnection pooled) {
+        boolean reusable = pooled.reset();
+        lock.lock();
+        try {
+            if (reusable && openCount <= maxPoolSize && pooled.profile == profile
+                    && pooled.generation == generation) {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.push(pooled);
+            } else {
+                pooled.closePhysical();
+                openCount--;
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close connections that have been idle longer than the timeout. Caller must hold the lock.
+     */
+    private static void evictIdle(long now) {
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext()) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsed < idleTimeoutMs && openCount <= maxPoolSize) {
+                break; // the rest were used more recently
+            }
+            it.remove();
+            pooled.closePhysical();
+            openCount--;
+        }
+    }
+
+    /**
+     * Open a physical connection and run the per-connection PRAGMA setup once
+     */
+    private static Connection openPhysical(DatabaseProfile profile) throws SQLException {
+        Connection conn = DriverManager.getConnection(DB_URL);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON;");
+            profile.apply(stmt);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    /**
+     * A physical connection owned by the pool
+     */
+    private static final class PooledConnection {
+        private final Connection physical;
+        private final DatabaseProfile profile;
+        private final int generation;
+        private long lastUsed;
+        // Prepared statements by SQL text, least recently used first
+        private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        PooledConnection(Connection physical, DatabaseProfile profile, int generation) {
+            this.physical = physical;
+            this.profile = profile;
+            this.generation = generation;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+
+        /**
+         * Hand out the cached statement for this SQL, compiling it on first use.
+         * A connection is only used by one borrower at a time, so no locking is needed.
+         */
+        PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && cached.checkedOut == null) {
+                statementHits.incrementAndGet();
+                return cached.checkOut(owner);
+            }
+
+            statementMisses.incrementAndGet();
+            if (cached != null) {
+                // Same SQL is already open on this connection (nested use); give out a private one
+                return physical.prepareStatement(sql);
+            }
+
+            cached = new CachedStatement(sql, physical.prepareStatement(sql));
+            statements.put(sql, cached);
+            evictStatements();
+            return cached.checkOut(owner);
+        }
+
+        private void evictStatements() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > STATEMENT_CACHE_SIZE && it.hasNext()) {
+                CachedStatement eldest = it.next();
+                if (eldest.checkedOut != null) continue; // in use; evict once it comes back
+                it.remove();
+                eldest.closePhysical();
+            }
+        }
+
+        void forget(CachedStatement cached) {
+            statements.remove(cached.sql);
+            cached.closePhysical();
+        }
+
+        /**
+         * Put the connection back in autocommit mode before it is reused
+         * @return false if the connection is broken and should be discarded
+         */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) return false;
+                // Statements the DAO forgot to close go back to the cache too
+                for (CachedStatement cached : statements.values().toArray(new CachedStatement[0])) {
+                    if (cached.checkedOut != null) cached.checkedOut.release();
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Discarding database connection: " + e.getMessage());
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            for (CachedStatement cached : statements.values()) {
+                cached.closePhysical();
+            }
+            statements.clear();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing database connection: " + e.getMessage());
+            }
+        }
+
+        /**
+         * A prepared statement owned by the connection's cache
+         */
+        private final class CachedStatement {
+            private final String sql;
+            private final PreparedStatement physical;
+            private StatementHandle checkedOut;
+
+            CachedStatement(String sql, PreparedStatement physical) {
+                this.sql = sql;
+                this.physical = physical;
+            }
+
+            PreparedStatement checkOut(Connection owner) {
+                checkedOut = new StatementHandle(this, owner);
+                return (PreparedStatement) Proxy.newProxyInstance(
+                        PreparedStatement.class.getClassLoader(),
+                        new Class<?>[]{PreparedStatement.class},
+                        checkedOut);
+            }
+
+            /**
+             * Called when the DAO closes its handle: clear state so the next user starts clean
+             */
+            void checkIn(ResultSet openResult) {
+                checkedOut = null;
+                try {
+                    if (openResult != null) openResult.close();
+                    physical.clearParameters();
+                    physical.clearBatch();
+                    evictStatements(); // the cache may have grown past its cap while this was in use
+                } catch (SQLException e) {
+                    System.err.println("Discarding cached statement: " + e.getMessage());
+                    forget(this);
+                }
+            }
+
+            void closePhysical() {
+                try {
+                    physical.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing statement: " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * The statement a DAO sees. close() returns it to the cache instead of finalizing it.
+         */
+        private final class StatementHandle implements InvocationHandler {
+            private final CachedStatement cached;
+            private final Connection owner;
+            private ResultSet openResult;
+            private boolean closed;
+
+            StatementHandle(CachedStatement cached, Connection owner) {
+                this.cached = cached;
+                this.owner = owner;
+            }
+
+            void release() {
+                if (closed) return;
+                closed = true;
+                cached.checkIn(openResult);
+                openResult = null;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close" -> {
+                        release();
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return closed;
+                    }
+                    case "getConnection" -> {
+                        return owner;
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "toString" -> {
+                        return "CachedStatement[" + cached.sql + "]";
+                    }
+                    default -> {
+                        if (closed) throw new SQLException("Statement is closed");
+                        try {
+                            Object result = method.invoke(cached.physical, args);
+                            if (result instanceof ResultSet rs) openResult = rs;
+                            return result;
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The connection a DAO sees. close() hands the physical connection back to the pool;
+     * every other call goes straight to the physical connection.
+     */
+    private static final class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    PooledConnection toRelease;
+                    synchronized (this) {
+                        toRelease = pooled;
+                        pooled = null;
+                    }
+                    if (toRelease != null) release(toRelease);
+                    return null;
+                }
+                case "isClosed" -> {
+                    synchronized (this) {
+                        return pooled == null || pooled.physical.isClosed();
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + DB_URL + "]";
+                }
+                case "prepareStatement" -> {
+                    PooledConnection current;
+                    synchronized (this) {
+                        current = pooled;
+                    }
+                    if (current == null) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    // SQLite cursors are always forward-only and read-only, so those
+                    // variants can share the cached statement
+                    if (args.length == 1 || (args.length == 3
+                            && (int) args[1] == ResultSet.TYPE_FORWARD_ONLY
+                            && (int) args[2] == ResultSet.CONCUR_READ_ONLY)) {
+                        return current.prepare((String) args[0], (Connection) proxy);
+                    }
+                    try {
+                        return method.invoke(current.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+                default -> {
+                    PooledConnection current;
+                    synchronized (this) {
+                        current = pooled;
+                    }
+                    if (current == null) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    try {
+                        return method.invoke(current.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package cs151.data;
+
+import cs151.model.Comment;
+import cs151.model.Student;
+import java.util.List;
+
+/**
+ * Shared read-through caches used by StudentDAO and CommentDAO, keyed by student ID
+ * DAOs are created per screen, so the caches are static to be shared across them.
+ *
+ * Limits can be set with the system properties cs151.cache.students (entries),
+ * cs151.cache.comments (entries) and cs151.cache.commentBytes (estimated bytes).
+ */
+public final class DataCache {
+    /** Students without comments; the DAO hands out copies so callers can edit them freely */
+    static final LruCache<Integer, Student> students = new LruCache<>(
+            "Student cache", Integer.getInteger("cs151.cache.students", 1_000));
+
+    /** Each student's comments, newest first */
+    static final LruCache<Integer, List<Comment>> comments = new LruCache<>(
+            "Comment cache", Integer.getInteger("cs151.cache.comments", 1_000),
+            Long.getLong("cs151.cache.commentBytes", 8L * 1024 * 1024), DataCache::estimateBytes);
+
+    private DataCache() {
+    }
+
+    /**
+     * Drop everything, e.g. after the database was changed outside the DAOs
+     */
+    public static void invalidateAll() {
+        students.invalidateAll();
+        comments.invalidateAll();
+    }
+
+    /**
+     * @return One line per cache with its size and hit / miss / eviction counters
+     */
+    public static String getStats() {
+        return students + System.lineSeparator() + comments;
+    }
+
+    /**
+     * Rough heap size of a comment list: object overhead plus two bytes per character
+     */
+    private static long estimateBytes(List<Comment> list) {
+        long bytes = 64;
+        for (Comment comment : list) {
+            bytes += 96 + 2L * (comment.getContent() == null ? 0 : comment.getContent().length());
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,89 @@
+package cs151.data;
+
+import cs151.model.Comment;
+import cs151.model.Student;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A change the DAOs have committed, published on {@link DataChangeBus}
+ * Views use these to patch the rows they show instead of reloading everything.
+ * Students and comments carried by an event are copies shared by every listener; treat them as read-only.
+ */
+public sealed interface DataChange {
+
+    record StudentCreated(Student student) implements DataChange {
+    }
+
+    record StudentUpdated(Student student) implements DataChange {
+    }
+
+    record StudentDeleted(int studentId) implements DataChange {
+    }
+
+    /**
+     * A comment was added or deleted; carries the student's new comment_count, last_comment_date
+     * and last_comment_preview
+     */
+    sealed interface CommentChange extends DataChange {
+        int studentId();
+
+        int commentCount();
+
+        LocalDate lastCommentDate();
+
+        String lastCommentPreview();
+
+        /**
+         * Bring a student row shown in a view up to date: new counters, and its comments are
+         * fetched again on next access if they had already been loaded
+         */
+        default void applyTo(Student student) {
+            student.setCommentCount(commentCount());
+            student.setLastCommentDate(lastCommentDate());
+            student.setLastCommentPreview(lastCommentPreview());
+            if (student.isCommentsLoaded()) {
+                CommentDAO commentDao = new CommentDAO();
+                student.setCommentLoader(() -> commentDao.getCommentsByStudentId(studentId()));
+            }
+        }
+    }
+
+    record CommentAdded(Comment comment, int commentCount, LocalDate lastCommentDate, String lastCommentPreview)
+            implements CommentChange {
+        @Override
+        public int studentId() {
+            return comment.getStudentId();
+        }
+    }
+
+    /**
+     * @param commentId The deleted comment, or 0 if all of the student's comments were deleted
+     */
+    record CommentDeleted(int studentId, int commentId, int commentCount, LocalDate lastCommentDate,
+                          String lastCommentPreview) implements CommentChange {
+    }
+
+    /**
+     * A language was added, renamed, merged into another or deleted
+     * @param oldName The name before, or null if the language is new
+     * @param newName The name after, or null if the language was deleted or unassigned
+     */
+    record LanguageChanged(String oldName, String newName) implements DataChange {
+
+        /**
+         * The given language list with the change applied (renamed, merged without duplicates, or removed)
+         */
+        public List<String> applyTo(List<String> languages) {
+            if (oldName == null || languages == null) return languages;
+            List<String> updated = new ArrayList<>(languages.size());
+            for (String language : languages) {
+                String name = language.equalsIgnoreCase(oldName) ? newName : language;
+                if (name != null && updated.stream().noneMatch(name::equalsIgnoreCase)) updated.add(name);
+            }
+            return updated;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package cs151.data;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link DataChange} events from the DAOs to every open view
+ * The DAOs publish after their transaction commits, on whatever thread ran the write;
+ * each listener chooses the executor it is called on (views use the FX thread).
+ * Publishing is cheap when nobody listens, so DAOs always publish.
+ */
+public final class DataChangeBus {
+
+    /**
+     * A registered listener; cancel it when the view goes away
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private DataChangeBus() {
+    }
+
+    /**
+     * @param executor Where the listener runs (e.g. the FX thread)
+     * @param listener Called once per published change, in publishing order
+     */
+    public static Subscription subscribe(Executor executor, Consumer<? super DataChange> listener) {
+        Listener entry = new Listener(executor, listener);
+        listeners.add(entry);
+        return entry;
+    }
+
+    /**
+     * Tell every listener about a committed change
+     */
+    public static void publish(DataChange change) {
+        for (Listener listener : listeners) {
+            listener.deliver(change);
+        }
+    }
+
+    private static final class Listener implements Subscription {
+        private final Executor executor;
+        private final Consumer<? super DataChange> consumer;
+        private volatile boolean cancelled;
+
+        Listener(Executor executor, Consumer<? super DataChange> consumer) {
+            this.executor = executor;
+            this.consumer = consumer;
+        }
+
+        void deliver(DataChange change) {
+            executor.execute(() -> {
+                if (cancelled) return; // cancelled while the event was queued
+                try {
+                    consumer.accept(change);
+                } catch (RuntimeException e) {
+                    System.err.println("Error handling " + change + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+            });
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            listeners.remove(this);
+        }
+    }
+}
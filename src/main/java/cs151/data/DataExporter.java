@@ -0,0 +1,190 @@
+package cs151.data;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+
+/**
+ * Streams students or comments from the database straight to a CSV or JSON-lines file
+ * Rows are read from a forward-only cursor and written one at a time through a buffered
+ * file channel, so memory use stays the same no matter how many rows are exported.
+ */
+public class DataExporter {
+
+    /** Rows fetched from SQLite per round trip */
+    private static final int FETCH_SIZE = 1_000;
+    /** How often (in rows) the progress listener is called */
+    private static final int PROGRESS_INTERVAL = 1_000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    public enum Dataset {
+        STUDENTS("""
+            SELECT s.id, s.name, s.academicStatus, s.email,
+                   (SELECT group_concat(name, ', ') FROM (
+                        SELECT l.name FROM StudentLanguage sl
+                        JOIN Language l ON l.id = sl.language_id
+                        WHERE sl.student_id = s.id
+                        ORDER BY sl.position)) AS languages,
+                   s.dbSkills, s.role, s.employmentStatus, s.jobDetails, s.flag
+            FROM Student s
+            ORDER BY s.id
+        """),
+        COMMENTS("""
+            SELECT c.id, c.student_id, s.name AS student_name, c.date, c.content
+            FROM Comment c
+            JOIN Student s ON s.id = c.student_id
+            ORDER BY c.student_id, c.date DESC, c.id
+        """);
+
+        private final String sql;
+
+        Dataset(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    public enum Format {
+        CSV, JSON_LINES;
+
+        /**
+         * Pick the format from a file name (.jsonl / .json -> JSON lines, anything else -> CSV)
+         */
+        public static Format fromFileName(String fileName) {
+            String lower = fileName.toLowerCase();
+            return lower.endsWith(".jsonl") || lower.endsWith(".json") ? JSON_LINES : CSV;
+        }
+    }
+
+    /**
+     * Receives the number of rows written so far; called from the exporting thread
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long rowsWritten);
+    }
+
+    /**
+     * Export a dataset to a file, replacing the file if it exists
+     * @param dataset Which table to export
+     * @param format CSV or JSON lines
+     * @param target The output file
+     * @param listener Progress callback, may be null
+     * @return Number of rows written
+     * @throws SQLException If reading from the database fails
+     * @throws IOException If writing the file fails
+     */
+    public long export(Dataset dataset, Format format, Path target, ProgressListener listener)
+            throws SQLException, IOException {
+        long rows = 0;
+
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     dataset.sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             FileChannel channel = FileChannel.open(target,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer out = new BufferedWriter(
+                     Channels.newWriter(channel, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+
+            stmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columnCount = meta.getColumnCount();
+                String[] columns = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    columns[i] = meta.getColumnLabel(i + 1);
+                }
+
+                if (format == Format.CSV) {
+                    writeCsvRow(out, columns);
+                }
+
+                String[] values = new String[columnCount];
+                while (rs.next()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new IOException("Export cancelled after " + rows + " rows");
+                    }
+                    for (int i = 0; i < columnCount; i++) {
+                        values[i] = rs.getString(i + 1);
+                    }
+                    if (format == Format.CSV) {
+                        writeCsvRow(out, values);
+                    } else {
+                        writeJsonLine(out, columns, values);
+                    }
+
+                    rows++;
+                    if (listener != null && rows % PROGRESS_INTERVAL == 0) {
+                        listener.onProgress(rows);
+                    }
+                }
+            }
+        }
+
+        if (listener != null) {
+            listener.onProgress(rows);
+        }
+        return rows;
+    }
+
+    private void writeCsvRow(Writer out, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(',');
+            String value = values[i];
+            if (value == null) continue;
+
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (quote) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeJsonLine(Writer out, String[] columns, String[] values) throws IOException {
+        out.write('{');
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) out.write(',');
+            writeJsonString(out, columns[i]);
+            out.write(':');
+            if (values[i] == null) {
+                out.write("null");
+            } else {
+                writeJsonString(out, values[i]);
+            }
+        }
+        out.write("}\n");
+    }
+
+    private void writeJsonString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+}
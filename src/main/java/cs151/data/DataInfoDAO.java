@@ -3,24 +3,13 @@ package cs151.data;
 import java.sql.*;
 
 public class DataInfoDAO {
-    private static final String DB_URL = "jdbc:sqlite:student.db";
 
     public void initTable() {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement()) {
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS DataInfo (
-                    id INTEGER PRIMARY KEY CHECK (id = 1),
-                    initialized INTEGER NOT NULL
-                );
-            """);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        SchemaMigrator.migrate();
     }
 
     public boolean isInitialized() {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = ConnectionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT initialized FROM DataInfo WHERE id = 1")) {
 
@@ -33,7 +22,7 @@ public class DataInfoDAO {
     }
 
     public void setInitialized() {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = ConnectionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                      "INSERT OR REPLACE INTO DataInfo (id, initialized) VALUES (1, 1)")) {
             stmt.executeUpdate();
@@ -10,18 +10,17 @@ import java.util.List;
  */
 public class DataInitializer {
     private static final StudentDAO studentDao = new StudentDAO();
-    private static final CommentDAO commentDao = new CommentDAO();
     private static final DataInfoDAO dataDao = new DataInfoDAO();
+    // Every language the students below know; students can only reference defined languages
+    static final List<String> LANGUAGES = List.of("Java", "Python", "C++", "JavaScript", "Ruby", "SQL");
 
     /**
      * Initialize database with 6 students (3 blacklisted, 3 whitelisted)
      * and meaningful comments for each student
      */
     public static void initializeData() {
-        // Initialize tables
-        studentDao.initTable();
-        commentDao.initTable();
-        dataDao.initTable();
+        // Create or upgrade the schema
+        SchemaMigrator.migrate();
 
         // Check if table is initialized
         if (dataDao.isInitialized()) {
@@ -32,11 +31,16 @@ public class DataInitializer {
         // Clear existing data for fresh start
         System.out.println("Initializing database with 6 students...");
 
+        List<Student> students = new ArrayList<>();
+
         // Create 3 Whitelisted Students
-        createWhitelistedStudents();
+        createWhitelistedStudents(students);
 
         // Create 3 Blacklisted Students
-        createBlacklistedStudents();
+        createBlacklistedStudents(students);
+
+        // Save the languages they use, then all students and their comments, in one batched transaction
+        studentDao.saveStudentsWithLanguages(LANGUAGES, students);
 
         // Mark initialization
         dataDao.setInitialized();
@@ -44,7 +48,7 @@ public class DataInitializer {
         System.out.println("Data initialization complete!");
     }
 
-    private static void createWhitelistedStudents() {
+    private static void createWhitelistedStudents(List<Student> students) {
         // Student 1: Alice Johnson - Whitelist
         Student alice = new Student("Alice Johnson", "Senior");
         //alice.setEmail("alice.johnson@sjsu.edu");
@@ -55,12 +59,11 @@ public class DataInitializer {
         alice.setJobDetails("");
         alice.setFlag("Whitelist");
 
-        if (studentDao.saveStudent(alice)) {
-            // Add comments for Alice
-            addComment(alice.getId(), "Alice demonstrates exceptional programming skills and consistently delivers high-quality code. Her understanding of object-oriented design principles is outstanding, and she actively participates in code reviews.");
-            addComment(alice.getId(), "Excellent team player who mentors junior developers and contributes innovative solutions to complex problems. Her recent project on microservices architecture was particularly impressive and showed deep technical knowledge.");
-            addComment(alice.getId(), "Strong communication skills and ability to explain technical concepts clearly. Alice would be an excellent addition to any software development team and has shown great leadership potential in group projects.");
-        }
+        // Add comments for Alice
+        addComment(alice, "Alice demonstrates exceptional programming skills and consistently delivers high-quality code. Her understanding of object-oriented design principles is outstanding, and she actively participates in code reviews.");
+        addComment(alice, "Excellent team player who mentors junior developers and contributes innovative solutions to complex problems. Her recent project on microservices architecture was particularly impressive and showed deep technical knowledge.");
+        addComment(alice, "Strong communication skills and ability to explain technical concepts clearly. Alice would be an excellent addition to any software development team and has shown great leadership potential in group projects.");
+        students.add(alice);
 
         // Student 2: Bob Smith - Whitelist
         Student bob = new Student("Bob Smith", "Junior");
@@ -72,11 +75,10 @@ public class DataInitializer {
         bob.setJobDetails("");
         bob.setFlag("Whitelist");
 
-        if (studentDao.saveStudent(bob)) {
-            addComment(bob.getId(), "Bob shows remarkable progress in backend development and has mastered RESTful API design patterns. His dedication to learning new technologies is commendable, particularly his recent work with Node.js and Express framework.");
-            addComment(bob.getId(), "Demonstrates strong problem-solving abilities and writes clean, maintainable code. Bob's recent contributions to our database optimization project resulted in significant performance improvements and reduced query response times.");
-            addComment(bob.getId(), "Reliable team member who consistently meets deadlines and produces quality work. His attention to detail and thorough testing practices have helped prevent numerous bugs from reaching production environments.");
-        }
+        addComment(bob, "Bob shows remarkable progress in backend development and has mastered RESTful API design patterns. His dedication to learning new technologies is commendable, particularly his recent work with Node.js and Express framework.");
+        addComment(bob, "Demonstrates strong problem-solving abilities and writes clean, maintainable code. Bob's recent contributions to our database optimization project resulted in significant performance improvements and reduced query response times.");
+        addComment(bob, "Reliable team member who consistently meets deadlines and produces quality work. His attention to detail and thorough testing practices have helped prevent numerous bugs from reaching production environments.");
+        students.add(bob);
 
         // Student 3: Carol Martinez - Whitelist
         Student carol = new Student("Carol Martinez", "Sophomore");
@@ -88,14 +90,13 @@ public class DataInitializer {
         carol.setJobDetails("");
         carol.setFlag("Whitelist");
 
-        if (studentDao.saveStudent(carol)) {
-            addComment(carol.getId(), "Carol exhibits outstanding database design skills and deep understanding of normalization principles. Her work on optimizing complex queries has demonstrated advanced SQL proficiency beyond her current academic level.");
-            addComment(carol.getId(), "Shows excellent analytical thinking and systematic approach to problem-solving. Carol's database performance tuning project achieved impressive results, reducing query execution time by over forty percent through strategic indexing.");
-            addComment(carol.getId(), "Highly motivated student with strong work ethic and eagerness to learn advanced database concepts. Her documentation of database schemas and procedures is thorough and serves as excellent reference material for the team.");
-        }
+        addComment(carol, "Carol exhibits outstanding database design skills and deep understanding of normalization principles. Her work on optimizing complex queries has demonstrated advanced SQL proficiency beyond her current academic level.");
+        addComment(carol, "Shows excellent analytical thinking and systematic approach to problem-solving. Carol's database performance tuning project achieved impressive results, reducing query execution time by over forty percent through strategic indexing.");
+        addComment(carol, "Highly motivated student with strong work ethic and eagerness to learn advanced database concepts. Her documentation of database schemas and procedures is thorough and serves as excellent reference material for the team.");
+        students.add(carol);
     }
 
-    private static void createBlacklistedStudents() {
+    private static void createBlacklistedStudents(List<Student> students) {
         // Student 4: David Lee - Blacklist
         Student david = new Student("David Lee", "Senior");
         //david.setEmail("david.lee@sjsu.edu");
@@ -106,11 +107,10 @@ public class DataInitializer {
         david.setJobDetails("");
         david.setFlag("Blacklist");
 
-        if (studentDao.saveStudent(david)) {
-            addComment(david.getId(), "David frequently misses project deadlines and submits incomplete work. Multiple team members have reported communication difficulties and lack of collaboration. His code often lacks proper documentation and contains numerous bugs that require extensive revision.");
-            addComment(david.getId(), "Demonstrates poor understanding of fundamental programming concepts despite being a senior student. Assignments are frequently submitted late with minimal effort shown. Recent group project suffered significant setbacks due to David's lack of contribution and preparation.");
-            addComment(david.getId(), "Attendance issues and lack of engagement during team meetings have negatively impacted group dynamics. Code quality is consistently below acceptable standards with inadequate testing. Additional supervision and mentoring have not resulted in noticeable improvement.");
-        }
+        addComment(david, "David frequently misses project deadlines and submits incomplete work. Multiple team members have reported communication difficulties and lack of collaboration. His code often lacks proper documentation and contains numerous bugs that require extensive revision.");
+        addComment(david, "Demonstrates poor understanding of fundamental programming concepts despite being a senior student. Assignments are frequently submitted late with minimal effort shown. Recent group project suffered significant setbacks due to David's lack of contribution and preparation.");
+        addComment(david, "Attendance issues and lack of engagement during team meetings have negatively impacted group dynamics. Code quality is consistently below acceptable standards with inadequate testing. Additional supervision and mentoring have not resulted in noticeable improvement.");
+        students.add(david);
 
         // Student 5: Emma Wilson - Blacklist
         Student emma = new Student("Emma Wilson", "Junior");
@@ -122,11 +122,10 @@ public class DataInitializer {
         emma.setJobDetails("");
         emma.setFlag("Blacklist");
 
-        if (studentDao.saveStudent(emma)) {
-            addComment(emma.getId(), "Emma shows minimal effort in completing assignments and demonstrates poor time management skills. Her code submissions are frequently incomplete and lack basic error handling. Team members report difficulty working with her due to unresponsive communication.");
-            addComment(emma.getId(), "Inconsistent work quality and failure to follow project requirements have been persistent issues. Recent code review revealed significant problems with logic implementation and violation of coding standards. Multiple reminders about deadlines have been necessary.");
-            addComment(emma.getId(), "Limited technical growth despite receiving detailed feedback on previous assignments. Emma's participation in collaborative projects has been minimal, often leaving substantial work for other team members. Professional development and accountability need significant improvement.");
-        }
+        addComment(emma, "Emma shows minimal effort in completing assignments and demonstrates poor time management skills. Her code submissions are frequently incomplete and lack basic error handling. Team members report difficulty working with her due to unresponsive communication.");
+        addComment(emma, "Inconsistent work quality and failure to follow project requirements have been persistent issues. Recent code review revealed significant problems with logic implementation and violation of coding standards. Multiple reminders about deadlines have been necessary.");
+        addComment(emma, "Limited technical growth despite receiving detailed feedback on previous assignments. Emma's participation in collaborative projects has been minimal, often leaving substantial work for other team members. Professional development and accountability need significant improvement.");
+        students.add(emma);
 
         // Student 6: Frank Brown - Blacklist
         Student frank = new Student("Frank Brown", "Sophomore");
@@ -138,15 +137,14 @@ public class DataInitializer {
         frank.setJobDetails("");
         frank.setFlag("Blacklist");
 
-        if (studentDao.saveStudent(frank)) {
-            addComment(frank.getId(), "Frank demonstrates fundamental knowledge gaps that hinder project progress. His inability to work independently requires constant supervision and assistance. Code submissions show lack of understanding of basic programming principles and best practices.");
-            addComment(frank.getId(), "Repeated instances of plagiarism and academic dishonesty have been documented. Frank's work often contains code copied from online sources without proper attribution or understanding. This behavior violates academic integrity policies and professional ethics standards.");
-            addComment(frank.getId(), "Negative attitude and resistance to feedback create challenges in collaborative environments. Frank's unwillingness to accept constructive criticism has prevented improvement. His presence in group projects has consistently resulted in conflict and reduced team productivity.");
-        }
+        addComment(frank, "Frank demonstrates fundamental knowledge gaps that hinder project progress. His inability to work independently requires constant supervision and assistance. Code submissions show lack of understanding of basic programming principles and best practices.");
+        addComment(frank, "Repeated instances of plagiarism and academic dishonesty have been documented. Frank's work often contains code copied from online sources without proper attribution or understanding. This behavior violates academic integrity policies and professional ethics standards.");
+        addComment(frank, "Negative attitude and resistance to feedback create challenges in collaborative environments. Frank's unwillingness to accept constructive criticism has prevented improvement. His presence in group projects has consistently resulted in conflict and reduced team productivity.");
+        students.add(frank);
     }
 
-    private static void addComment(int studentId, String content) {
-        Comment comment = new Comment(studentId, content);
-        commentDao.addComment(comment);
+    private static void addComment(Student student, String content) {
+        // Student id is assigned when the batch is saved
+        student.addComment(new Comment(0, content));
     }
 }
@@ -0,0 +1,83 @@
+package cs151.data;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * SQLite journal and durability settings applied to every pooled connection
+ *
+ * DURABLE   - rollback journal with full sync (SQLite defaults); safest, writers block readers
+ * BALANCED  - WAL with synchronous=NORMAL; readers and writers run concurrently (default)
+ * BULK_LOAD - in-memory journal without fsync; only for one-off imports where a crash can be redone
+ *
+ * Selected at startup with the cs151.db.profile system property or the --db-profile
+ * application parameter (durable, balanced or bulk-load).
+ */
+public enum DatabaseProfile {
+    DURABLE("DELETE", "FULL", -2_000, 0, "DEFAULT", 5_000),
+    BALANCED("WAL", "NORMAL", -16_000, 64L * 1024 * 1024, "MEMORY", 5_000),
+    BULK_LOAD("MEMORY", "OFF", -64_000, 256L * 1024 * 1024, "MEMORY", 10_000);
+
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSize;        // negative values are KiB, as in PRAGMA cache_size
+    private final long mmapSize;        // bytes, 0 disables memory mapping
+    private final String tempStore;
+    private final int busyTimeoutMs;
+
+    DatabaseProfile(String journalMode, String synchronous, int cacheSize,
+                    long mmapSize, String tempStore, int busyTimeoutMs) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    /**
+     * Run the PRAGMA statements for this profile on a freshly opened connection
+     */
+    void apply(Statement stmt) throws SQLException {
+        // busy_timeout first so the journal_mode switch can wait for other connections
+        stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs + ";");
+        try {
+            stmt.execute("PRAGMA journal_mode = " + journalMode + ";");
+        } catch (SQLException e) {
+            // journal_mode is stored in the database file; another process may hold it open
+            System.err.println("Could not set journal_mode to " + journalMode + ": " + e.getMessage());
+        }
+        stmt.execute("PRAGMA synchronous = " + synchronous + ";");
+        stmt.execute("PRAGMA cache_size = " + cacheSize + ";");
+        stmt.execute("PRAGMA mmap_size = " + mmapSize + ";");
+        stmt.execute("PRAGMA temp_store = " + tempStore + ";");
+    }
+
+    /**
+     * Look up a profile by name ("durable", "balanced", "bulk-load"), ignoring case
+     * @param name The profile name
+     * @return The matching profile, or BALANCED if the name is unknown or empty
+     */
+    public static DatabaseProfile fromName(String name) {
+        if (name != null) {
+            String normalized = name.trim().toUpperCase().replace('-', '_');
+            for (DatabaseProfile profile : values()) {
+                if (profile.name().equals(normalized)) {
+                    return profile;
+                }
+            }
+            if (!normalized.isEmpty()) {
+                System.err.println("Unknown database profile '" + name + "', using balanced");
+            }
+        }
+        return BALANCED;
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+}
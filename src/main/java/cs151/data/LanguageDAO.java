@@ -6,31 +6,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class LanguageDAO {
-    private static final String DB_URL = "jdbc:sqlite:student.db";
 
-    // Initialize Language table if it doesn't exist
+    // Make sure the Language table exists (the schema is managed by SchemaMigrator)
     public void initTable() {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS Language (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                name TEXT NOT NULL
-            );
-        """;
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        SchemaMigrator.migrate();
     }
 
     // Save a new language to the database
     public void saveLanguage(String name) {
         String sql = "INSERT INTO Language(name) VALUES(?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = ConnectionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, name);
             stmt.executeUpdate();
+            DataChangeBus.publish(new DataChange.LanguageChanged(null, name));
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -40,7 +29,7 @@ public class LanguageDAO {
     public List<Language> getAllLanguages() {
         List<Language> list = new ArrayList<>();
         String sql = "SELECT id, name FROM Language";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = ConnectionManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
@@ -54,8 +43,8 @@ public class LanguageDAO {
 
     // Check if a language already exists by name
     public boolean isLanguageExists(String name) {
-        String sql = "SELECT COUNT(*) FROM Language WHERE LOWER(name) = LOWER(?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        String sql = "SELECT COUNT(*) FROM Language WHERE name = ? COLLATE NOCASE";
+        try (Connection conn = ConnectionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, name);
             ResultSet rs = stmt.executeQuery();
@@ -66,28 +55,13 @@ public class LanguageDAO {
         }
     }
 
-    // Delete a language by ID
+    // Delete a language by ID, taking it away from every student that has it
     public void deleteLanguage(int id) {
-        String sql = "DELETE FROM Language WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        new LanguageMaintenance().delete(id);
     }
 
-    // Update a language name by ID
+    // Update a language name by ID; students reference the language by id, so they follow
     public void updateLanguage(int id, String newName) {
-        String sql = "UPDATE Language SET name = ? WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, newName);
-            stmt.setInt(2, id);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        new LanguageMaintenance().rename(id, newName);
     }
 }
@@ -0,0 +1,219 @@
+package cs151.data;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Language maintenance jobs that touch many students at once: unassign, delete, rename and merge
+ *
+ * Each job is a few set-based statements on StudentLanguage/Language run in one transaction,
+ * so its cost does not grow with one round trip per student. The full-text index follows
+ * through its triggers; the in-memory search index and the student cache are updated after
+ * the commit. Every method returns the number of rows it changed.
+ */
+public class LanguageMaintenance {
+
+    /**
+     * Take a language away from every student, keeping the language itself
+     * @param languageName Language name (case-insensitive)
+     * @return Number of student assignments removed
+     */
+    public int unassign(String languageName) {
+        String sql = """
+            DELETE FROM StudentLanguage
+            WHERE language_id IN (SELECT id FROM Language WHERE name = ? COLLATE NOCASE)
+        """;
+        int removed = inTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, languageName);
+                return stmt.executeUpdate();
+            }
+        });
+        if (removed > 0) afterLanguageChange(languageName, null);
+        return removed;
+    }
+
+    /**
+     * Delete a language and take it away from every student that has it
+     * @param languageId The language to delete
+     * @return Number of rows removed (student assignments plus the language), 0 if it did not exist
+     */
+    public int delete(int languageId) {
+        String[] name = new String[1];
+        int removed = inTransaction(conn -> {
+            name[0] = getName(conn, languageId);
+            if (name[0] == null) return 0;
+            int rows = update(conn, "DELETE FROM StudentLanguage WHERE language_id = ?", languageId);
+            return rows + update(conn, "DELETE FROM Language WHERE id = ?", languageId);
+        });
+        if (removed > 0) afterLanguageChange(name[0], null);
+        return removed;
+    }
+
+    /**
+     * Rename a language. Students reference it by id, so they all follow in one UPDATE.
+     * If another language already has the new name (ignoring case), the two are merged instead.
+     * @param languageId The language to rename
+     * @param newName The new name
+     * @return Number of rows changed
+     */
+    public int rename(int languageId, String newName) {
+        String trimmed = newName.trim();
+        Integer existingId = findId(trimmed);
+        if (existingId != null && existingId != languageId) {
+            return merge(languageId, existingId);
+        }
+
+        String[] oldName = new String[1];
+        int changed = inTransaction(conn -> {
+            oldName[0] = getName(conn, languageId);
+            if (oldName[0] == null) return 0;
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE Language SET name = ? WHERE id = ?")) {
+                stmt.setString(1, trimmed);
+                stmt.setInt(2, languageId);
+                return stmt.executeUpdate();
+            }
+        });
+        if (changed > 0) afterLanguageChange(oldName[0], trimmed);
+        return changed;
+    }
+
+    /**
+     * Move every student from one language to another and delete the first one
+     * Students who already had both keep a single assignment at their original position.
+     * @param fromId The language that goes away
+     * @param intoId The language that is kept
+     * @return Number of rows changed (assignments moved or dropped, plus the deleted language)
+     */
+    public int merge(int fromId, int intoId) {
+        if (fromId == intoId) return 0;
+
+        String[] names = new String[2];
+        int changed = inTransaction(conn -> {
+            names[0] = getName(conn, fromId);
+            names[1] = getName(conn, intoId);
+            if (names[0] == null || names[1] == null) return 0;
+            return mergeInto(conn, fromId, intoId);
+        });
+        if (changed > 0) afterLanguageChange(names[0], names[1]);
+        return changed;
+    }
+
+    /**
+     * Merge languages whose names only differ by case or surrounding spaces into the oldest of each group
+     * @return Number of rows changed
+     */
+    public int mergeDuplicates() {
+        String sql = """
+            SELECT l.id, keep.id, l.name, keep.name
+            FROM Language l
+            JOIN (SELECT MIN(id) AS id, name, trim(name) AS trimmed
+                  FROM Language GROUP BY trim(name) COLLATE NOCASE) keep
+                 ON trim(l.name) = keep.trimmed COLLATE NOCASE
+            WHERE l.id <> keep.id
+        """;
+        List<String[]> renames = new ArrayList<>();
+        int changed = inTransaction(conn -> {
+            List<int[]> pairs = new ArrayList<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    pairs.add(new int[]{rs.getInt(1), rs.getInt(2)});
+                    renames.add(new String[]{rs.getString(3), rs.getString(4)});
+                }
+            }
+            int rows = 0;
+            for (int[] pair : pairs) {
+                rows += mergeInto(conn, pair[0], pair[1]);
+            }
+            return rows;
+        });
+        for (String[] rename : renames) {
+            afterLanguageChange(rename[0], rename[1]);
+        }
+        return changed;
+    }
+
+    private int mergeInto(Connection conn, int fromId, int intoId) throws SQLException {
+        int rows;
+        try (PreparedStatement stmt = conn.prepareStatement("""
+                INSERT OR IGNORE INTO StudentLanguage(student_id, language_id, position)
+                SELECT student_id, ?, position FROM StudentLanguage WHERE language_id = ?
+                """)) {
+            stmt.setInt(1, intoId);
+            stmt.setInt(2, fromId);
+            rows = stmt.executeUpdate();
+        }
+        rows += update(conn, "DELETE FROM StudentLanguage WHERE language_id = ?", fromId);
+        rows += update(conn, "DELETE FROM Language WHERE id = ?", fromId);
+        return rows;
+    }
+
+    // --- helpers ---
+
+    @FunctionalInterface
+    private interface Job {
+        int run(Connection conn) throws SQLException;
+    }
+
+    private int inTransaction(Job job) {
+        try (Connection conn = ConnectionManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int rows = job.run(conn);
+                conn.commit();
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Language maintenance failed: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    private int update(Connection conn, String sql, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private String getName(Connection conn, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT name FROM Language WHERE id = ?")) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private Integer findId(String name) {
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT id FROM Language WHERE name = ? COLLATE NOCASE")) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Bring the in-memory copies in line once the change is committed
+     * @param newName The language students now have instead, or null if it was taken away
+     */
+    private void afterLanguageChange(String oldName, String newName) {
+        DataCache.students.invalidateAll(); // cached students carry their language lists
+        StudentSearchIndex.getInstance().renameLanguage(oldName, newName);
+        StatisticsDAO.invalidate(); // language counts are rebuilt on the next read
+        DataChangeBus.publish(new DataChange.LanguageChanged(oldName, newName));
+    }
+}
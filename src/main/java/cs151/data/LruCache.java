@@ -0,0 +1,155 @@
+package cs151.data;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * A small thread-safe LRU cache bounded by entry count and, optionally, by estimated size
+ * Keeps hit / miss / eviction counters so the limits can be tuned.
+ *
+ * A read-through load takes a {@link #stamp} before reading the database and caches its
+ * result with {@link #putIfUnchanged}, so a value read before a concurrent write committed
+ * is not stored after that write has put or invalidated the key.
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class LruCache<K, V> {
+    private final String name;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    // accessOrder = true: iteration starts at the least recently used entry
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // Bumped by every put / invalidate of a key hashing to the slot
+    private final long[] stamps = new long[64];
+
+    /**
+     * Cache bounded by number of entries only
+     */
+    public LruCache(String name, int maxEntries) {
+        this(name, maxEntries, Long.MAX_VALUE, value -> 0);
+    }
+
+    /**
+     * @param name Shown in {@link #toString()}
+     * @param maxEntries Maximum number of entries
+     * @param maxWeight Maximum total weight (e.g. estimated bytes)
+     * @param weigher Estimates the weight of one value
+     */
+    public LruCache(String name, int maxEntries, long maxWeight, ToLongFunction<V> weigher) {
+        this.name = name;
+        this.maxEntries = Math.max(0, maxEntries);
+        this.maxWeight = Math.max(0, maxWeight);
+        this.weigher = weigher;
+    }
+
+    /**
+     * @return The cached value, or null (counted as a miss)
+     */
+    public synchronized V get(K key) {
+        V value = map.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        stamps[slot(key)]++;
+        if (maxEntries == 0) return;
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            invalidate(key); // would evict everything else; don't cache it
+            return;
+        }
+
+        V old = map.put(key, value);
+        if (old != null) weight -= weigher.applyAsLong(old);
+        weight += valueWeight;
+
+        Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        while ((map.size() > maxEntries || weight > maxWeight) && it.hasNext()) {
+            Map.Entry<K, V> eldest = it.next();
+            weight -= weigher.applyAsLong(eldest.getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * @return The key's current stamp, for {@link #putIfUnchanged}; read it before loading the value
+     */
+    public synchronized long stamp(K key) {
+        return stamps[slot(key)];
+    }
+
+    /**
+     * Cache a loaded value unless the key was put or invalidated since the stamp was read
+     * @return true if the value was cached
+     */
+    public synchronized boolean putIfUnchanged(K key, V value, long stamp) {
+        if (stamps[slot(key)] != stamp) return false;
+        put(key, value);
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        stamps[slot(key)]++;
+        V old = map.remove(key);
+        if (old != null) weight -= weigher.applyAsLong(old);
+    }
+
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < stamps.length; i++) {
+            stamps[i]++;
+        }
+        map.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    private int slot(K key) {
+        return (key.hashCode() & 0x7fffffff) % stamps.length;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %d entries (~%d KB), %d hits, %d misses (%.0f%% hit rate), %d evictions",
+                name, map.size(), weight / 1024, hits, misses, getHitRate() * 100, evictions);
+    }
+}
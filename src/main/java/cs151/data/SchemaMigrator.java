@@ -0,0 +1,283 @@
+package cs151.data;
+
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Creates and upgrades the database schema
+ *
+ * Every change to the schema is a numbered migration below. The highest applied number
+ * is recorded in the SchemaVersion table, and {@link #migrate()} applies the newer ones
+ * in order, each in its own transaction, once per run of the application.
+ * To change the schema, append a migration; never edit one that has shipped.
+ */
+public final class SchemaMigrator {
+
+    @FunctionalInterface
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private record Migration(int version, String description, Step step) {
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Base tables", sql(
+            """
+            CREATE TABLE IF NOT EXISTS Language (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL
+            );
+            """,
+            // The languages column is kept only so old databases can be migrated to StudentLanguage
+            """
+            CREATE TABLE IF NOT EXISTS Student (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL,
+                academicStatus TEXT NOT NULL,
+                email TEXT,
+                languages TEXT,
+                dbSkills TEXT,
+                role TEXT,
+                employmentStatus TEXT,
+                jobDetails TEXT,
+                flag TEXT
+            );
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS StudentLanguage (
+                student_id INTEGER NOT NULL REFERENCES Student(id) ON DELETE CASCADE,
+                language_id INTEGER NOT NULL REFERENCES Language(id) ON DELETE CASCADE,
+                position INTEGER NOT NULL DEFAULT 0,
+                PRIMARY KEY (student_id, language_id)
+            ) WITHOUT ROWID;
+            """,
+            // The primary key covers lookups by student; this index covers lookups by language
+            "CREATE INDEX IF NOT EXISTS idx_StudentLanguage_language ON StudentLanguage(language_id, student_id);",
+            """
+            CREATE TABLE IF NOT EXISTS Comment (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                student_id INTEGER NOT NULL,
+                content TEXT NOT NULL,
+                date TEXT NOT NULL,
+                FOREIGN KEY (student_id) REFERENCES Student(id) ON DELETE CASCADE
+            );
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS DataInfo (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                initialized INTEGER NOT NULL
+            );
+            """)),
+
+        new Migration(2, "Move comma-separated Student.languages into StudentLanguage",
+            conn -> new StudentLanguageDAO().migrateLegacyColumn(conn)),
+
+        // Used by getCommentsByStudentId, comment counts and the ON DELETE CASCADE from Student
+        new Migration(3, "Index Comment(student_id, date)", sql(
+            "CREATE INDEX IF NOT EXISTS idx_Comment_student_date ON Comment(student_id, date);")),
+
+        // Serves sorting by name and the (name, id) keyset pages; id is the rowid, so it is in every entry
+        new Migration(4, "Index Student(name COLLATE NOCASE)", sql(
+            "CREATE INDEX IF NOT EXISTS idx_Student_name ON Student(name COLLATE NOCASE);")),
+
+        // Flag filters, still in name order for the Reports pages
+        new Migration(5, "Index Student(flag)", sql(
+            "CREATE INDEX IF NOT EXISTS idx_Student_flag_name ON Student(flag, name COLLATE NOCASE);")),
+
+        new Migration(6, "Unique case-insensitive Language(name)", sql(
+            // Point students at the oldest of each group of duplicate names...
+            """
+            INSERT OR IGNORE INTO StudentLanguage(student_id, language_id, position)
+            SELECT sl.student_id, keep.id, sl.position
+            FROM StudentLanguage sl
+            JOIN Language l ON l.id = sl.language_id
+            JOIN (SELECT MIN(id) AS id, name FROM Language GROUP BY name COLLATE NOCASE) keep
+                 ON keep.name = l.name COLLATE NOCASE
+            WHERE keep.id <> l.id;
+            """,
+            // ...then drop the duplicates (their StudentLanguage rows go with them)
+            "DELETE FROM Language WHERE id NOT IN (SELECT MIN(id) FROM Language GROUP BY name COLLATE NOCASE);",
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_Language_name ON Language(name COLLATE NOCASE);")),
+
+        new Migration(7, "Full-text search tables", SearchDAO::createIndex),
+
+        // Report filters by academic status and by role, still in name order for the keyset pages
+        new Migration(8, "Index Student(academicStatus) and Student(role)", sql(
+            "CREATE INDEX IF NOT EXISTS idx_Student_status_name ON Student(academicStatus, name COLLATE NOCASE);",
+            "CREATE INDEX IF NOT EXISTS idx_Student_role_name ON Student(role, name COLLATE NOCASE);")),
+
+        // Per-student comment counters, kept exact by triggers so counts need no COUNT(*) over Comment.
+        // The triggers only SET the two counter columns, so Student_fts_update (UPDATE OF name,
+        // academicStatus, role, dbSkills) does not fire for them.
+        new Migration(9, "Student comment_count and last_comment_date", sql(
+            "ALTER TABLE Student ADD COLUMN comment_count INTEGER NOT NULL DEFAULT 0;",
+            "ALTER TABLE Student ADD COLUMN last_comment_date TEXT;",
+            """
+            UPDATE Student SET
+                comment_count = (SELECT COUNT(*) FROM Comment c WHERE c.student_id = Student.id),
+                last_comment_date = (SELECT MAX(date) FROM Comment c WHERE c.student_id = Student.id);
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS Comment_counter_insert AFTER INSERT ON Comment BEGIN
+                UPDATE Student SET
+                    comment_count = comment_count + 1,
+                    last_comment_date = max(coalesce(last_comment_date, ''), new.date)
+                WHERE id = new.student_id;
+            END;
+            """,
+            // The latest date is looked up again through idx_Comment_student_date
+            """
+            CREATE TRIGGER IF NOT EXISTS Comment_counter_delete AFTER DELETE ON Comment BEGIN
+                UPDATE Student SET
+                    comment_count = comment_count - 1,
+                    last_comment_date = (SELECT MAX(date) FROM Comment WHERE student_id = old.student_id)
+                WHERE id = old.student_id;
+            END;
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS Comment_counter_update AFTER UPDATE OF student_id, date ON Comment BEGIN
+                UPDATE Student SET comment_count = comment_count - 1
+                WHERE id = old.student_id AND new.student_id <> old.student_id;
+                UPDATE Student SET comment_count = comment_count + 1
+                WHERE id = new.student_id AND new.student_id <> old.student_id;
+                UPDATE Student SET
+                    last_comment_date = (SELECT MAX(date) FROM Comment WHERE student_id = Student.id)
+                WHERE id IN (old.student_id, new.student_id);
+            END;
+            """,
+            // Comment-count filters, still in name order for the keyset pages
+            "CREATE INDEX IF NOT EXISTS idx_Student_comments_name ON Student(comment_count, name COLLATE NOCASE);")),
+
+        // The start of the newest comment, so lists can show a comment summary without loading comments.
+        // Recomputed from the newest (date, id) through idx_Comment_student_date whenever it may change.
+        new Migration(10, "Student last_comment_preview", sql(
+            "ALTER TABLE Student ADD COLUMN last_comment_preview TEXT;",
+            """
+            UPDATE Student SET last_comment_preview = (
+                SELECT substr(content, 1, 200) FROM Comment c WHERE c.student_id = Student.id
+                ORDER BY date DESC, id DESC LIMIT 1);
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS Comment_preview_insert AFTER INSERT ON Comment BEGIN
+                UPDATE Student SET last_comment_preview = (
+                    SELECT substr(content, 1, 200) FROM Comment WHERE student_id = new.student_id
+                    ORDER BY date DESC, id DESC LIMIT 1)
+                WHERE id = new.student_id;
+            END;
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS Comment_preview_delete AFTER DELETE ON Comment BEGIN
+                UPDATE Student SET last_comment_preview = (
+                    SELECT substr(content, 1, 200) FROM Comment WHERE student_id = old.student_id
+                    ORDER BY date DESC, id DESC LIMIT 1)
+                WHERE id = old.student_id;
+            END;
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS Comment_preview_update AFTER UPDATE OF student_id, date, content ON Comment BEGIN
+                UPDATE Student SET last_comment_preview = (
+                    SELECT substr(content, 1, 200) FROM Comment WHERE student_id = Student.id
+                    ORDER BY date DESC, id DESC LIMIT 1)
+                WHERE id IN (old.student_id, new.student_id);
+            END;
+            """))
+    );
+
+    private static boolean migrated;
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Bring the database up to the latest schema version. Only does work the first
+     * time it is called in a run; DAO initTable() methods call it so every screen
+     * can rely on the schema being there.
+     */
+    public static synchronized void migrate() {
+        if (migrated) return;
+
+        try (Connection conn = ConnectionManager.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS SchemaVersion (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        applied_at TEXT NOT NULL DEFAULT (datetime('now'))
+                    );
+                """);
+            }
+
+            int current = getVersion(conn);
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version() <= current) continue;
+                apply(conn, migration);
+                current = migration.version();
+            }
+            migrated = true;
+        } catch (SQLException e) {
+            System.err.println("Error migrating database schema: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return The schema version of the database, or 0 if it has never been migrated
+     */
+    public static int getCurrentVersion() {
+        try (Connection conn = ConnectionManager.getConnection()) {
+            return getVersion(conn);
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            migration.step().apply(conn);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO SchemaVersion(version, description) VALUES(?, ?)")) {
+                stmt.setInt(1, migration.version());
+                stmt.setString(2, migration.description());
+                stmt.executeUpdate();
+            }
+            conn.commit();
+            System.out.println("Applied schema migration " + migration.version() + ": " + migration.description());
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.version() + " (" + migration.description()
+                    + ") failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static int getVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT COALESCE(MAX(version), 0) FROM SchemaVersion")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            if (e.getMessage() != null && e.getMessage().contains("no such table")) return 0;
+            throw e;
+        }
+    }
+
+    /**
+     * A step that runs plain SQL statements in order
+     */
+    private static Step sql(String... statements) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String statement : statements) {
+                    stmt.execute(statement);
+                }
+            }
+        };
+    }
+}
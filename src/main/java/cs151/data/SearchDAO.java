@@ -0,0 +1,214 @@
+package cs151.data;
+
+import cs151.model.SearchHit;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-text search over students and comments using SQLite FTS5
+ *
+ * StudentFts holds name, academicStatus, role, dbSkills and the student's languages.
+ * CommentFts is an external-content index over Comment.content. Both are kept in sync
+ * by triggers, so DAOs never have to update them directly.
+ */
+public class SearchDAO {
+
+    // '+' and '#' are token characters so C++ and C# stay searchable
+    private static final String CREATE_STUDENT_FTS = """
+        CREATE VIRTUAL TABLE IF NOT EXISTS StudentFts USING fts5(
+            name, academicStatus, role, dbSkills, languages,
+            tokenize = "unicode61 remove_diacritics 2 tokenchars '+#'"
+        );
+    """;
+
+    private static final String CREATE_COMMENT_FTS = """
+        CREATE VIRTUAL TABLE IF NOT EXISTS CommentFts USING fts5(
+            content,
+            content = 'Comment', content_rowid = 'id',
+            tokenize = "unicode61 remove_diacritics 2 tokenchars '+#'"
+        );
+    """;
+
+    private static final String[] CREATE_TRIGGERS = {
+        """
+        CREATE TRIGGER IF NOT EXISTS Student_fts_insert AFTER INSERT ON Student BEGIN
+            INSERT INTO StudentFts(rowid, name, academicStatus, role, dbSkills, languages)
+            VALUES (new.id, new.name, new.academicStatus, new.role, new.dbSkills, '');
+        END;
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS Student_fts_update
+        AFTER UPDATE OF name, academicStatus, role, dbSkills ON Student BEGIN
+            UPDATE StudentFts
+            SET name = new.name, academicStatus = new.academicStatus,
+                role = new.role, dbSkills = new.dbSkills
+            WHERE rowid = new.id;
+        END;
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS Student_fts_delete AFTER DELETE ON Student BEGIN
+            DELETE FROM StudentFts WHERE rowid = old.id;
+        END;
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS StudentLanguage_fts_insert AFTER INSERT ON StudentLanguage BEGIN
+            UPDATE StudentFts SET languages = (
+                SELECT group_concat(l.name, ' ') FROM StudentLanguage sl
+                JOIN Language l ON l.id = sl.language_id
+                WHERE sl.student_id = new.student_id)
+            WHERE rowid = new.student_id;
+        END;
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS StudentLanguage_fts_delete AFTER DELETE ON StudentLanguage BEGIN
+            UPDATE StudentFts SET languages = coalesce((
+                SELECT group_concat(l.name, ' ') FROM StudentLanguage sl
+                JOIN Language l ON l.id = sl.language_id
+                WHERE sl.student_id = old.student_id), '')
+            WHERE rowid = old.student_id;
+        END;
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS Language_fts_update AFTER UPDATE OF name ON Language BEGIN
+            UPDATE StudentFts SET languages = (
+                SELECT group_concat(l.name, ' ') FROM StudentLanguage sl
+                JOIN Language l ON l.id = sl.language_id
+                WHERE sl.student_id = StudentFts.rowid)
+            WHERE rowid IN (SELECT student_id FROM StudentLanguage WHERE language_id = new.id);
+        END;
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS Comment_fts_insert AFTER INSERT ON Comment BEGIN
+            INSERT INTO CommentFts(rowid, content) VALUES (new.id, new.content);
+        END;
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS Comment_fts_delete AFTER DELETE ON Comment BEGIN
+            INSERT INTO CommentFts(CommentFts, rowid, content) VALUES ('delete', old.id, old.content);
+        END;
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS Comment_fts_update AFTER UPDATE OF content ON Comment BEGIN
+            INSERT INTO CommentFts(CommentFts, rowid, content) VALUES ('delete', old.id, old.content);
+            INSERT INTO CommentFts(rowid, content) VALUES (new.id, new.content);
+        END;
+        """
+    };
+
+    private static final String POPULATE_STUDENT_FTS = """
+        INSERT INTO StudentFts(rowid, name, academicStatus, role, dbSkills, languages)
+        SELECT s.id, s.name, s.academicStatus, s.role, s.dbSkills,
+               coalesce((SELECT group_concat(l.name, ' ') FROM StudentLanguage sl
+                         JOIN Language l ON l.id = sl.language_id
+                         WHERE sl.student_id = s.id), '')
+        FROM Student s;
+    """;
+
+    private static final String POPULATE_COMMENT_FTS = """
+        INSERT INTO CommentFts(CommentFts) VALUES ('rebuild');
+    """;
+
+    // Student matches and comment matches are merged per student; the best (lowest) bm25 wins
+    // and SQLite returns the snippet from that same row. Name hits weigh the most.
+    private static final String SEARCH_SQL = """
+        WITH hits AS (
+            SELECT rowid AS student_id,
+                   bm25(StudentFts, 10.0, 2.0, 2.0, 1.0, 2.0) AS score,
+                   snippet(StudentFts, -1, '[', ']', '...', 8) AS snippet
+            FROM StudentFts WHERE StudentFts MATCH ?
+            UNION ALL
+            SELECT c.student_id,
+                   bm25(CommentFts) AS score,
+                   snippet(CommentFts, 0, '[', ']', '...', 12) AS snippet
+            FROM CommentFts JOIN Comment c ON c.id = CommentFts.rowid
+            WHERE CommentFts MATCH ?
+        )
+        SELECT student_id, MIN(score) AS score, snippet
+        FROM hits
+        GROUP BY student_id
+        ORDER BY score
+        LIMIT ?
+    """;
+
+    /**
+     * Make sure the schema, including the full-text tables, is up to date
+     */
+    public void initTable() {
+        SchemaMigrator.migrate();
+    }
+
+    /**
+     * Create the full-text tables and triggers, filling the indexes the first time.
+     * Run by {@link SchemaMigrator}; Student, StudentLanguage, Language and Comment must already exist.
+     */
+    static void createIndex(Connection conn) throws SQLException {
+        boolean studentFtsExists = tableExists(conn, "StudentFts");
+        boolean commentFtsExists = tableExists(conn, "CommentFts");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_STUDENT_FTS);
+            stmt.execute(CREATE_COMMENT_FTS);
+            for (String trigger : CREATE_TRIGGERS) {
+                stmt.execute(trigger);
+            }
+
+            if (!studentFtsExists) stmt.execute(POPULATE_STUDENT_FTS);
+            if (!commentFtsExists) stmt.execute(POPULATE_COMMENT_FTS);
+        }
+    }
+
+    /**
+     * Search students and comment text, best matches first
+     * Every word in the query must match the start of a word in the same student row or comment.
+     * @param query Text typed by the user
+     * @param limit Maximum number of students to return
+     * @return Ranked hits, one per student
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        String match = toMatchExpression(query);
+        if (match.isEmpty()) return hits;
+
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SEARCH_SQL)) {
+            stmt.setString(1, match);
+            stmt.setString(2, match);
+            stmt.setInt(3, limit);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                hits.add(new SearchHit(rs.getInt("student_id"), rs.getDouble("score"), rs.getString("snippet")));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return hits;
+    }
+
+    /**
+     * Turn free text into an FTS5 expression: every word becomes a quoted prefix term,
+     * so user input can never be parsed as FTS5 syntax
+     */
+    static String toMatchExpression(String query) {
+        if (query == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (String word : query.trim().split("\\s+")) {
+            String term = word.replace("\"", "");
+            if (term.isEmpty()) continue;
+            if (sb.length() > 0) sb.append(' ');
+            sb.append('"').append(term).append("\"*");
+        }
+        return sb.toString();
+    }
+
+    private static boolean tableExists(Connection conn, String name) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
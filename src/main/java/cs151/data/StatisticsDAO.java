@@ -0,0 +1,345 @@
+package cs151.data;
+
+import cs151.model.Student;
+import cs151.model.StudentStatistics;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts for the Statistics page: students by flag, academic status, role and employment,
+ * language and DB skill popularity, and comments per student
+ *
+ * The counts are built with two GROUP BY queries and no Student objects: one pass over
+ * Student grouped by every counted column at once (comments per student come from the
+ * trigger-maintained comment_count), and one over the StudentLanguage language index.
+ * They are then kept in memory and
+ * adjusted by StudentDAO and CommentDAO after each write, so the page does not re-run the
+ * queries. Changes that touch many students at once (language maintenance) drop the counts
+ * and the next read rebuilds them.
+ */
+public class StatisticsDAO {
+    static final String NONE = "None";
+
+    private static final Object lock = new Object();
+    private static Tally tally;   // null until first built, or after invalidate()
+    private static long version;  // bumped by every write, so a build that raced one is not kept
+
+    /**
+     * @return The current counts, built from the database on first use
+     */
+    public StudentStatistics getStatistics() {
+        long startVersion;
+        synchronized (lock) {
+            if (tally != null) return tally.snapshot();
+            startVersion = version;
+        }
+
+        // Build outside the lock so writers are not held up by the queries
+        Tally fresh = build();
+        synchronized (lock) {
+            if (fresh == null) return new Tally().snapshot();
+            if (version == startVersion) tally = fresh; // otherwise a write may be missing; rebuild next time
+            return fresh.snapshot();
+        }
+    }
+
+    /**
+     * Throw the counts away and build them again from the database
+     */
+    public StudentStatistics refresh() {
+        invalidate();
+        return getStatistics();
+    }
+
+    // --- hooks for the DAOs, called after their transaction commits ---
+
+    /**
+     * Drop the counts; the next read rebuilds them
+     */
+    static void invalidate() {
+        synchronized (lock) {
+            version++;
+            tally = null;
+        }
+    }
+
+    static boolean isLoaded() {
+        synchronized (lock) {
+            return tally != null;
+        }
+    }
+
+    /**
+     * A new student was saved
+     * @param commentCount Number of comments saved with it
+     */
+    static void studentAdded(Student student, int commentCount) {
+        synchronized (lock) {
+            version++;
+            if (tally != null) tally.addStudent(student, commentCount, 1);
+        }
+    }
+
+    /**
+     * A student's fields or languages changed
+     * @param before The student as read by {@link #readBefore} before the change, or null if unknown
+     */
+    static void studentChanged(Student before, Student after) {
+        synchronized (lock) {
+            version++;
+            if (tally == null) return;
+            if (before == null) {
+                tally = null;
+                return;
+            }
+            // Comment counts are unchanged
+            tally.addProfile(before, -1);
+            tally.addProfile(after, 1);
+        }
+    }
+
+    /**
+     * A student and its comments were deleted
+     * @param before The student as read by {@link #readBefore} before the delete, or null if unknown
+     */
+    static void studentRemoved(Student before, int commentCount) {
+        synchronized (lock) {
+            version++;
+            if (tally == null) return;
+            if (before == null) {
+                tally = null;
+                return;
+            }
+            tally.addStudent(before, commentCount, -1);
+        }
+    }
+
+    /**
+     * Read a student's comment count (a primary-key lookup) inside the transaction that changed it,
+     * so it is the count that write produced and not one a later write has already moved on
+     * @return The count, or -1 if the counts are not loaded
+     */
+    static int countCommentsInTransaction(Connection conn, int studentId) throws SQLException {
+        return isLoaded() ? countComments(conn, studentId) : -1;
+    }
+
+    /**
+     * A student's comment count changed by delta
+     * Each write moves the student between its own before and after buckets, so the writes
+     * may be applied in any order.
+     * @param after The count from {@link #countCommentsInTransaction}
+     */
+    static void commentsChanged(int delta, int after) {
+        if (delta == 0) return;
+        synchronized (lock) {
+            version++;
+            if (tally == null) return;
+            if (after < 0) {
+                tally = null; // not loaded at the write, so a build running then may or may not include it
+                return;
+            }
+            tally.moveComments(after - delta, after);
+        }
+    }
+
+    /**
+     * Read the counted fields of a student before it is changed, if the counts are loaded
+     * @return The student with flag, status, role, employment, DB skills and languages, or null
+     */
+    static Student readBefore(Connection conn, int studentId) throws SQLException {
+        if (!isLoaded()) return null;
+        Student student = null;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT id, name, academicStatus, role, employmentStatus, dbSkills, flag FROM Student WHERE id = ?")) {
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    student = new Student(rs.getInt("id"), rs.getString("name"), rs.getString("academicStatus"));
+                    student.setRole(rs.getString("role"));
+                    student.setEmploymentStatus(rs.getString("employmentStatus"));
+                    student.setDbSkills(rs.getString("dbSkills"));
+                    student.setFlag(rs.getString("flag"));
+                }
+            }
+        }
+        if (student != null) {
+            student.setLanguages(new StudentLanguageDAO()
+                    .getLanguagesForStudents(conn, List.of(studentId))
+                    .getOrDefault(studentId, new ArrayList<>()));
+        }
+        return student;
+    }
+
+    /**
+     * @return How many comments a student has, for {@link #studentRemoved}; 0 if the counts are not loaded
+     */
+    static int countCommentsBefore(Connection conn, int studentId) throws SQLException {
+        return isLoaded() ? countComments(conn, studentId) : 0;
+    }
+
+    private static int countComments(Connection conn, int studentId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT comment_count FROM Student WHERE id = ?")) {
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // --- building ---
+
+    private Tally build() {
+        Tally fresh = new Tally();
+        try (Connection conn = ConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            // Read both in one snapshot so the totals agree with each other
+            conn.setAutoCommit(false);
+            try {
+                // One pass over Student; the groups are few even with many students
+                try (ResultSet rs = stmt.executeQuery("""
+                        SELECT flag, academicStatus, role, employmentStatus, dbSkills, comment_count, COUNT(*)
+                        FROM Student
+                        GROUP BY flag, academicStatus, role, employmentStatus, dbSkills, comment_count
+                        """)) {
+                    while (rs.next()) {
+                        int students = rs.getInt(7);
+                        fresh.addFields(rs.getString(1), rs.getString(2), rs.getString(3),
+                                rs.getString(4), rs.getString(5), students);
+                        fresh.addComments(rs.getInt(6), students);
+                    }
+                }
+
+                // Reads only idx_StudentLanguage_language
+                try (ResultSet rs = stmt.executeQuery("""
+                        SELECT l.name, n
+                        FROM (SELECT language_id, COUNT(*) AS n FROM StudentLanguage GROUP BY language_id) counts
+                        JOIN Language l ON l.id = counts.language_id
+                        """)) {
+                    while (rs.next()) {
+                        count(fresh.languages, rs.getString(1), rs.getInt(2));
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            return fresh;
+        } catch (SQLException e) {
+            System.err.println("Error building statistics: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static String label(String value) {
+        return value == null || value.isBlank() ? NONE : value.trim();
+    }
+
+    /**
+     * A count may dip below zero while writes are applied out of commit order; snapshots leave it out
+     */
+    private static <K> void count(Map<K, Integer> counts, K key, int delta) {
+        if (counts.merge(key, delta, Integer::sum) == 0) counts.remove(key);
+    }
+
+    /**
+     * Sorted copy: largest count first, then by name
+     */
+    private static Map<String, Integer> byCount(Map<String, Integer> counts) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    /**
+     * Mutable counters behind the snapshots; caller holds the lock once it is shared
+     */
+    private static final class Tally {
+        private int students;
+        private int comments;
+        private final Map<String, Integer> flags = new HashMap<>();
+        private final Map<String, Integer> statuses = new HashMap<>();
+        private final Map<String, Integer> roles = new HashMap<>();
+        private final Map<String, Integer> employment = new HashMap<>();
+        private final Map<String, Map<String, Integer>> flagByStatus = new HashMap<>();
+        private final Map<String, Integer> languages = new HashMap<>();
+        private final Map<String, Integer> dbSkills = new HashMap<>();
+        private final Map<Integer, Integer> commentsPerStudent = new HashMap<>();
+
+        void addFields(String flag, String status, String role, String employmentStatus, String skills, int n) {
+            students += n;
+            count(flags, label(flag), n);
+            count(statuses, label(status), n);
+            count(roles, label(role), n);
+            count(employment, label(employmentStatus), n);
+            Map<String, Integer> flagsForStatus = flagByStatus.computeIfAbsent(label(status), k -> new HashMap<>());
+            count(flagsForStatus, label(flag), n);
+            if (flagsForStatus.isEmpty()) flagByStatus.remove(label(status));
+            if (skills != null) {
+                for (String skill : skills.split(",")) {
+                    if (!skill.isBlank()) count(dbSkills, skill.trim(), n);
+                }
+            }
+        }
+
+        /**
+         * Add (sign 1) or take away (sign -1) one student with its comments
+         */
+        void addStudent(Student student, int commentCount, int sign) {
+            addProfile(student, sign);
+            addComments(commentCount, sign);
+        }
+
+        /**
+         * Add (or take away, for negative n) n students with commentCount comments each
+         */
+        void addComments(int commentCount, int n) {
+            comments += n * commentCount;
+            count(commentsPerStudent, commentCount, n);
+        }
+
+        /**
+         * Add or take away one student's fields and languages
+         */
+        void addProfile(Student student, int sign) {
+            addFields(student.getFlag(), student.getAcademicStatus(), student.getRole(),
+                    student.getEmploymentStatus(), student.getDbSkills(), sign);
+            if (student.getLanguages() != null) {
+                for (String language : student.getLanguages()) {
+                    count(languages, language, sign);
+                }
+            }
+        }
+
+        void moveComments(int before, int after) {
+            comments += after - before;
+            count(commentsPerStudent, Math.max(0, before), -1);
+            count(commentsPerStudent, after, 1);
+        }
+
+        StudentStatistics snapshot() {
+            Map<String, Map<String, Integer>> crossTab = new TreeMap<>();
+            flagByStatus.forEach((status, counts) -> crossTab.put(status, byCount(counts)));
+            Map<Integer, Integer> perStudent = new TreeMap<>();
+            commentsPerStudent.forEach((count, n) -> {
+                if (n > 0) perStudent.put(count, n);
+            });
+            return new StudentStatistics(students, comments,
+                    byCount(flags), byCount(statuses), byCount(roles), byCount(employment),
+                    crossTab, byCount(languages), byCount(dbSkills), perStudent);
+        }
+    }
+}
@@ -4,47 +4,42 @@ import cs151.model.Student;
 import cs151.model.Comment;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.stream.Collectors;
 
 /**
  * Data Access Object for Student entity
  * Handles all database operations for students
  */
 public class StudentDAO {
-    private static final String DB_URL = "jdbc:sqlite:student.db";
+    private static final int DEFAULT_BATCH_CHUNK_SIZE = 500;
+    private static final String INSERT_STUDENT_SQL = """
+        INSERT INTO Student(name, academicStatus, email, dbSkills, role,
+                                    employmentStatus, jobDetails, flag)
+        VALUES(?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+    private static final String INSERT_COMMENT_SQL = "INSERT INTO Comment(student_id, content, date) VALUES(?, ?, ?)";
+
     private final CommentDAO commentDao = new CommentDAO();
+    private final StudentLanguageDAO studentLanguageDao = new StudentLanguageDAO();
+    private final StudentSearchIndex searchIndex = StudentSearchIndex.getInstance();
 
     /**
-     * Initialize Student table if it doesn't exist
+     * Make sure the Student, StudentLanguage and Language tables exist and are up to date
      */
     public void initTable() {
-        String studentSql = """
-            CREATE TABLE IF NOT EXISTS Student (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                name TEXT NOT NULL,
-                academicStatus TEXT NOT NULL,
-                email TEXT,
-                languages TEXT,
-                dbSkills TEXT,
-                role TEXT,
-                employmentStatus TEXT,
-                jobDetails TEXT,
-                flag TEXT
-            );
-        """;
-
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement()) {
-            stmt.execute("PRAGMA foreign_keys = ON;");
-            stmt.execute(studentSql);
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        SchemaMigrator.migrate();
     }
 
     /**
      * Save a new student to the database
+     * The student row and its comments are written in one transaction
      * @param student The student to save
      * @return true if successful, false otherwise
      */
@@ -52,46 +47,174 @@ public class StudentDAO {
         if (!student.isValid()) {
             return false;
         }
+        return saveStudents(List.of(student)) == 1;
+    }
 
-        String sql = """
-            INSERT INTO Student(name, academicStatus, email, languages, dbSkills, role,
-                                        employmentStatus, jobDetails, flag)
-            VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)
-        """;
-        
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, student.getName());
-            stmt.setString(2, student.getAcademicStatus());
-            stmt.setString(3, student.getEmail());
-            stmt.setString(4, student.getLanguagesAsString());
-            stmt.setString(5, student.getDbSkills());
-            stmt.setString(6, student.getRole());
-            stmt.setString(7, student.getEmploymentStatus());
-            stmt.setString(8, student.getJobDetails());
-            stmt.setString(9, student.getFlag());
-
-            int rows = stmt.executeUpdate();
-            if (rows == 0) return false;
-
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    int studentId = rs.getInt(1);
-                    student.setId(studentId);
-                    // Save comments using CommentDAO
-                    for (Comment c : student.getComments()) {
-                        Comment newComment = new Comment(studentId, c.getComment());
-                        commentDao.addComment(newComment);
+    /**
+     * Save many new students and their comments using JDBC batches
+     * @param students The students to save; invalid students are skipped
+     * @return Number of students saved
+     */
+    public int saveStudents(Collection<Student> students) {
+        return saveStudents(students, DEFAULT_BATCH_CHUNK_SIZE);
+    }
+
+    /**
+     * Save many new students, their languages and their comments using JDBC batches.
+     * Each chunk is inserted and committed as one transaction, so a large import
+     * costs one fsync per chunk instead of one per row. If a chunk fails it is
+     * rolled back and the import stops; earlier chunks stay committed.
+     * @param students The students to save; invalid students are skipped
+     * @param chunkSize Number of students per transaction
+     * @return Number of students saved
+     */
+    public int saveStudents(Collection<Student> students, int chunkSize) {
+        return saveStudents(students, chunkSize, List.of());
+    }
+
+    /**
+     * Save students as {@link #saveStudents(Collection)} does, first adding the languages they use
+     * that are not defined yet, in the transaction of the first chunk
+     * @return Number of students saved
+     */
+    int saveStudentsWithLanguages(Collection<String> languages, Collection<Student> students) {
+        return saveStudents(students, DEFAULT_BATCH_CHUNK_SIZE, languages);
+    }
+
+    private int saveStudents(Collection<Student> students, int chunkSize, Collection<String> languages) {
+        List<Student> valid = new ArrayList<>();
+        for (Student student : students) {
+            if (student.isValid()) valid.add(student);
+        }
+        if (valid.isEmpty()) return 0;
+
+        int size = Math.max(1, chunkSize);
+        int saved = 0;
+
+        try (Connection conn = ConnectionManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement studentStmt = conn.prepareStatement(INSERT_STUDENT_SQL);
+                 PreparedStatement commentStmt = conn.prepareStatement(INSERT_COMMENT_SQL);
+                 Statement keyStmt = conn.createStatement()) {
+
+                Map<String, Integer> languageIds = new HashMap<>();
+                for (int from = 0; from < valid.size(); from += size) {
+                    List<Student> chunk = valid.subList(from, Math.min(from + size, valid.size()));
+                    List<String> addedLanguages = new ArrayList<>();
+                    try {
+                        if (from == 0) {
+                            for (String language : languages) {
+                                if (studentLanguageDao.addLanguage(conn, language, languageIds)) {
+                                    addedLanguages.add(language);
+                                }
+                            }
+                        }
+                        insertChunk(conn, chunk, studentStmt, commentStmt, keyStmt, languageIds);
+                        conn.commit();
+                        saved += chunk.size();
+                        for (String language : addedLanguages) {
+                            DataChangeBus.publish(new DataChange.LanguageChanged(null, language));
+                        }
+                        for (Student student : chunk) {
+                            searchIndex.put(student);
+                            StatisticsDAO.studentAdded(student, countSavedComments(student));
+                            DataChangeBus.publish(new DataChange.StudentCreated(published(student)));
+                        }
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        for (Student student : chunk) student.setId(0);
+                        System.err.println("Error saving students, import stopped after "
+                                + saved + " rows: " + e.getMessage());
+                        e.printStackTrace();
+                        break;
                     }
                 }
+            } finally {
+                conn.setAutoCommit(true);
             }
-            return true;
         } catch (SQLException e) {
             e.printStackTrace();
-            return false;
+        }
+        return saved;
+    }
+
+    /**
+     * Insert one chunk of students and their comments inside the current transaction
+     */
+    private void insertChunk(Connection conn, List<Student> chunk, PreparedStatement studentStmt,
+                             PreparedStatement commentStmt, Statement keyStmt,
+                             Map<String, Integer> languageIds) throws SQLException {
+        for (Student student : chunk) {
+            bindStudent(studentStmt, student);
+            studentStmt.addBatch();
+        }
+        int[] counts = studentStmt.executeBatch();
+        if (counts.length != chunk.size()) {
+            throw new SQLException("Expected " + chunk.size() + " inserts, got " + counts.length);
+        }
+
+        // The transaction holds the write lock, so SQLite hands out consecutive ids;
+        // read the last one and count back instead of asking for keys row by row.
+        long lastId;
+        try (ResultSet rs = keyStmt.executeQuery("SELECT last_insert_rowid()")) {
+            lastId = rs.next() ? rs.getLong(1) : 0;
+        }
+        if (lastId < chunk.size()) {
+            throw new SQLException("Could not read generated student ids");
+        }
+
+        long firstId = lastId - chunk.size() + 1;
+        boolean hasComments = false;
+        for (int i = 0; i < chunk.size(); i++) {
+            Student student = chunk.get(i);
+            student.setId((int) (firstId + i));
+            student.setLanguages(studentLanguageDao.insertLanguages(
+                    conn, student.getId(), student.getLanguages(), languageIds));
+
+            List<Comment> comments = student.getComments();
+            if (comments == null) continue;
+            for (Comment c : comments) {
+                if (c.getContent() == null || c.getContent().trim().isEmpty()) continue;
+                c.setStudentId(student.getId());
+                commentStmt.setInt(1, student.getId());
+                commentStmt.setString(2, c.getContent());
+                commentStmt.setString(3, c.getDateAsString());
+                commentStmt.addBatch();
+                hasComments = true;
+            }
+        }
+        if (hasComments) {
+            commentStmt.executeBatch();
         }
     }
 
+    /**
+     * Number of comments insertChunk wrote for a student (blank ones are skipped)
+     */
+    private int countSavedComments(Student student) {
+        int count = 0;
+        if (student.getComments() != null) {
+            for (Comment c : student.getComments()) {
+                if (c.getContent() != null && !c.getContent().trim().isEmpty()) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Bind the student columns (parameters 1-8) in INSERT_STUDENT_SQL order
+     */
+    private void bindStudent(PreparedStatement stmt, Student student) throws SQLException {
+        stmt.setString(1, student.getName());
+        stmt.setString(2, student.getAcademicStatus());
+        stmt.setString(3, student.getEmail());
+        stmt.setString(4, student.getDbSkills());
+        stmt.setString(5, student.getRole());
+        stmt.setString(6, student.getEmploymentStatus());
+        stmt.setString(7, student.getJobDetails());
+        stmt.setString(8, student.getFlag());
+    }
+
     /**
      * Retrieve all students from the database, sorted by name (A-Z, case-insensitive)
      * @return List of all students sorted alphabetically by name
@@ -100,6 +223,15 @@ public class StudentDAO {
         return getAllStudents("name", "ASC");
     }
 
+    /**
+     * Retrieve all students sorted by name (A-Z, case-insensitive)
+     * @param withComments true to load comments now, false to load them on first access
+     * @return List of all students sorted alphabetically by name
+     */
+    public List<Student> getAllStudentsSortedByName(boolean withComments) {
+        return getAllStudents("name", "ASC", withComments);
+    }
+
     /**
      * Retrieve all students with custom sorting
      * @param sortBy Column to sort by (e.g., "name", "academicStatus")
@@ -107,6 +239,17 @@ public class StudentDAO {
      * @return List of students sorted according to parameters
      */
     public List<Student> getAllStudents(String sortBy, String order) {
+        return getAllStudents(sortBy, order, true);
+    }
+
+    /**
+     * Retrieve all students with custom sorting
+     * @param sortBy Column to sort by (e.g., "name", "academicStatus")
+     * @param order Sort order ("ASC" or "DESC")
+     * @param withComments true to load comments now, false to load them on first access
+     * @return List of students sorted according to parameters
+     */
+    public List<Student> getAllStudents(String sortBy, String order, boolean withComments) {
         List<Student> list = new ArrayList<>();
         
         // Validate sortBy to prevent SQL injection
@@ -120,35 +263,45 @@ public class StudentDAO {
         
         String sql = "SELECT * FROM Student ORDER BY " + validSortBy + " COLLATE NOCASE " + validOrder;
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try {
+            list = readStudents(sql);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        if (!withComments) {
+            for (Student student : list) {
+                attachCommentLoader(student);
+            }
+            return list;
+        }
+
+        // Attach comments from a single grouped query instead of one query per student
+        Map<Integer, List<Comment>> commentsByStudent = commentDao.getAllCommentsGroupedByStudentId();
+        for (Student student : list) {
+            student.setComments(commentsByStudent.getOrDefault(student.getId(), new ArrayList<>()));
+        }
+        return list;
+    }
+
+    /**
+     * Run a query over Student and attach every student's languages, read in the same connection
+     */
+    private List<Student> readStudents(String sql) throws SQLException {
+        List<Student> list = new ArrayList<>();
+        try (Connection conn = ConnectionManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
-            
+
             while (rs.next()) {
-                Student student = new Student(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("academicStatus")
-                );
-                student.setEmail(rs.getString("email"));
-                
-                // Parse languages from comma-separated string
-                String languagesStr = rs.getString("languages");
-                if (languagesStr != null && !languagesStr.isEmpty()) {
-                    student.setLanguagesFromString(languagesStr);
-                }
-                
-                student.setDbSkills(rs.getString("dbSkills"));
-                student.setRole(rs.getString("role"));
-                student.setEmploymentStatus(rs.getString("employmentStatus"));
-                student.setJobDetails(rs.getString("jobDetails"));
-                student.setFlag(rs.getString("flag"));
-                student.setComments(commentDao.getCommentsByStudentId(student.getId()));
-
-                list.add(student);
+                list.add(mapStudent(rs));
+            }
+
+            // Attach languages from one grouped query on the join table
+            Map<Integer, List<String>> languagesByStudent = studentLanguageDao.getLanguagesGroupedByStudentId(conn);
+            for (Student student : list) {
+                student.setLanguages(languagesByStudent.getOrDefault(student.getId(), new ArrayList<>()));
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return list;
     }
@@ -159,30 +312,34 @@ public class StudentDAO {
      * @return The student, or null if not found
      */
     public Student getStudentById(int id) {
+        return getStudentById(id, true);
+    }
+
+    /**
+     * Get a student by ID
+     * @param id The student ID
+     * @param withComments true to load comments now, false to load them on first access
+     * @return The student, or null if not found
+     */
+    public Student getStudentById(int id, boolean withComments) {
+        Student cached = DataCache.students.get(id);
+        if (cached != null) {
+            return withCommentsOrLoader(copyOf(cached), withComments);
+        }
+        long stamp = DataCache.students.stamp(id); // a write from here on keeps this read out of the cache
+
         String sql = "SELECT * FROM Student WHERE id = ?";
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = ConnectionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                Student student = new Student(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("academicStatus")
-                );
-                student.setEmail(rs.getString("email"));
-                student.setLanguagesFromString(rs.getString("languages"));
-                student.setDbSkills(rs.getString("dbSkills"));
-                student.setRole(rs.getString("role"));
-                student.setEmploymentStatus(rs.getString("employmentStatus"));
-                student.setJobDetails(rs.getString("jobDetails"));
-                student.setFlag(rs.getString("flag"));
-                // Comments are managed separately via CommentDAO
-                student.setComments(commentDao.getCommentsByStudentId(student.getId()));
-
-                return student;
+                Student student = mapStudent(rs);
+                student.setLanguages(studentLanguageDao.getLanguagesByStudentId(conn, student.getId()));
+                DataCache.students.putIfUnchanged(id, copyOf(student), stamp);
+                return withCommentsOrLoader(student, withComments);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -190,6 +347,18 @@ public class StudentDAO {
         return null;
     }
 
+    /**
+     * Comments are managed separately via CommentDAO (which has its own cache)
+     */
+    private Student withCommentsOrLoader(Student student, boolean withComments) {
+        if (withComments) {
+            student.setComments(commentDao.getCommentsByStudentId(student.getId()));
+        } else {
+            attachCommentLoader(student);
+        }
+        return student;
+    }
+
     /**
      * Update an existing student
      * @param student The student with updated information
@@ -202,28 +371,43 @@ public class StudentDAO {
 
         String sql = """
             UPDATE Student
-            SET name = ?, academicStatus = ?, email = ?, languages = ?,\s
+            SET name = ?, academicStatus = ?, email = ?,\s
                    dbSkills = ?, role = ?, employmentStatus = ?, jobDetails = ?,\s
                     flag = ?
             WHERE id = ?
+            RETURNING comment_count, last_comment_date, last_comment_preview
         """;
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, student.getName());
-            stmt.setString(2, student.getAcademicStatus());
-            stmt.setString(3, student.getEmail());
-            stmt.setString(4, student.getLanguagesAsString());
-            stmt.setString(5, student.getDbSkills());
-            stmt.setString(6, student.getRole());
-            stmt.setString(7, student.getEmploymentStatus());
-            stmt.setString(8, student.getJobDetails());
-            stmt.setString(9, student.getFlag());
-            stmt.setInt(10, student.getId());
+        try (Connection conn = ConnectionManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Student before = StatisticsDAO.readBefore(conn, student.getId());
+                bindStudent(stmt, student);
+                stmt.setInt(9, student.getId());
 
-            int rowsAffected = stmt.executeUpdate();
-            // Comments are managed separately via CommentDAO
-            return rowsAffected > 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.rollback();
+                        return false;
+                    }
+                    // The form's student may not know its current counters; take them from the row
+                    mapCommentCounters(student, rs);
+                }
+                // Languages live in StudentLanguage; comments are managed separately via CommentDAO
+                student.setLanguages(studentLanguageDao.replaceLanguages(
+                        conn, student.getId(), student.getLanguages(), new HashMap<>()));
+                conn.commit();
+                DataCache.students.put(student.getId(), copyOf(student)); // write-through
+                searchIndex.put(student);
+                StatisticsDAO.studentChanged(before, student);
+                DataChangeBus.publish(new DataChange.StudentUpdated(published(student)));
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -238,15 +422,23 @@ public class StudentDAO {
     public boolean deleteStudent(int id) {
         String sql = "DELETE FROM Student WHERE id = ?";
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = ConnectionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            try (Statement pragma = conn.createStatement()) {
-                pragma.execute("PRAGMA foreign_keys = ON;");
-            }
+            // What the statistics need to take the student back out (only read if they are loaded)
+            Student before = StatisticsDAO.readBefore(conn, id);
+            int commentCount = StatisticsDAO.countCommentsBefore(conn, id);
 
             stmt.setInt(1, id);
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                // Comments went with the student through ON DELETE CASCADE
+                DataCache.students.invalidate(id);
+                DataCache.comments.invalidate(id);
+                searchIndex.remove(id);
+                StatisticsDAO.studentRemoved(before, commentCount);
+                DataChangeBus.publish(new DataChange.StudentDeleted(id));
+            }
             return rowsAffected > 0;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -254,6 +446,87 @@ public class StudentDAO {
         }
     }
 
+    /**
+     * Build a Student from the current row of a result set (without languages or comments)
+     */
+    private Student mapStudent(ResultSet rs) throws SQLException {
+        Student student = new Student(
+            rs.getInt("id"),
+            rs.getString("name"),
+            rs.getString("academicStatus")
+        );
+        student.setEmail(rs.getString("email"));
+        student.setDbSkills(rs.getString("dbSkills"));
+        student.setRole(rs.getString("role"));
+        student.setEmploymentStatus(rs.getString("employmentStatus"));
+        student.setJobDetails(rs.getString("jobDetails"));
+        student.setFlag(rs.getString("flag"));
+        mapCommentCounters(student, rs);
+        return student;
+    }
+
+    /**
+     * Build a Student from a row read with StudentQuery's summary columns
+     */
+    private Student mapStudentSummary(ResultSet rs) throws SQLException {
+        Student student = new Student(
+            rs.getInt("id"),
+            rs.getString("name"),
+            rs.getString("academicStatus")
+        );
+        student.setDbSkills(rs.getString("dbSkills"));
+        student.setRole(rs.getString("role"));
+        student.setFlag(rs.getString("flag"));
+        mapCommentCounters(student, rs);
+        return student;
+    }
+
+    /**
+     * Read the comment_count / last_comment_date / last_comment_preview columns the Comment triggers keep up to date
+     */
+    private void mapCommentCounters(Student student, ResultSet rs) throws SQLException {
+        student.setCommentCount(rs.getInt("comment_count"));
+        String lastDate = rs.getString("last_comment_date");
+        student.setLastCommentDate(lastDate == null ? null : LocalDate.parse(lastDate));
+        student.setLastCommentPreview(rs.getString("last_comment_preview"));
+    }
+
+    /**
+     * Copy a student's fields and languages (not comments), so cached or indexed
+     * instances are never shared with callers that may edit them
+     */
+    static Student copyOf(Student student) {
+        Student copy = new Student(student.getId(), student.getName(), student.getAcademicStatus());
+        copy.setEmail(student.getEmail());
+        copy.setLanguages(student.getLanguages() == null ? new ArrayList<>() : new ArrayList<>(student.getLanguages()));
+        copy.setDbSkills(student.getDbSkills());
+        copy.setRole(student.getRole());
+        copy.setEmploymentStatus(student.getEmploymentStatus());
+        copy.setJobDetails(student.getJobDetails());
+        copy.setFlag(student.getFlag());
+        copy.setCommentCount(student.getCommentCount());
+        copy.setLastCommentDate(student.getLastCommentDate());
+        copy.setLastCommentPreview(student.getLastCommentPreview());
+        return copy;
+    }
+
+    /**
+     * The copy of a student sent with a change event; comments load on first access
+     */
+    private Student published(Student student) {
+        Student copy = copyOf(student);
+        attachCommentLoader(copy);
+        return copy;
+    }
+
+    /**
+     * Let the student fetch its comments from CommentDAO the first time they are read
+     */
+    private void attachCommentLoader(Student student) {
+        int studentId = student.getId();
+        student.setCommentLoader(() -> commentDao.getCommentsByStudentId(studentId));
+    }
+
     /**
      * Validate student profile
      * @param student The student to validate
@@ -281,18 +554,23 @@ public class StudentDAO {
 
     /**
      * Check if a language is referenced by any student
-     * @param languageName The language name to check
+     * @param languageName The language name to check (case-insensitive)
      * @return true if the language is used by at least one student
      */
     public boolean isLanguageReferenced(String languageName) {
-        String sql = "SELECT COUNT(*) FROM Student WHERE languages LIKE ?";
+        String sql = """
+            SELECT EXISTS (
+                SELECT 1 FROM StudentLanguage sl
+                JOIN Language l ON l.id = sl.language_id
+                WHERE l.name = ? COLLATE NOCASE
+            )
+        """;
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = ConnectionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
-            // Check if the language appears in the comma-separated list
-            stmt.setString(1, "%" + languageName + "%");
+            stmt.setString(1, languageName);
             ResultSet rs = stmt.executeQuery();
-            return rs.getInt(1) > 0;
+            return rs.next() && rs.getInt(1) == 1;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -300,26 +578,277 @@ public class StudentDAO {
     }
 
     /**
-     * Remove a language from all students who have it
-     * @param languageName The language to remove
-     * @return Number of students updated
+     * Retrieve the students who know a language, sorted by name
+     * @param languageName The language name (case-insensitive)
+     * @param withComments true to load comments now, false to load them on first access
+     * @return Matching students
      */
-    public int unassignLanguageFromAllStudents(String languageName) {
-        List<Student> students = getAllStudents("name", "ASC");
-        int updatedCount = 0;
-        
-        for (Student student : students) {
-            List<String> languages = student.getLanguages();
-            if (languages.contains(languageName)) {
-                languages.remove(languageName);
-                student.setLanguages(languages);
-                if (updateStudent(student)) {
-                    updatedCount++;
+    public List<Student> getStudentsByLanguage(String languageName, boolean withComments) {
+        List<Student> list = new ArrayList<>();
+        String sql = """
+            SELECT s.* FROM Student s
+            JOIN StudentLanguage sl ON sl.student_id = s.id
+            JOIN Language l ON l.id = sl.language_id
+            WHERE l.name = ? COLLATE NOCASE
+            ORDER BY s.name COLLATE NOCASE
+        """;
+
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, languageName);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                list.add(mapStudent(rs));
+            }
+            // Languages and comments come from one grouped query each, not one per student
+            Map<Integer, List<String>> languagesByStudent = studentLanguageDao.getLanguagesForStudents(conn, ids(list));
+            for (Student student : list) {
+                student.setLanguages(languagesByStudent.getOrDefault(student.getId(), new ArrayList<>()));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        if (withComments) {
+            Map<Integer, List<Comment>> commentsByStudent = commentDao.getCommentsGroupedByStudentIds(ids(list));
+            for (Student student : list) {
+                student.setComments(commentsByStudent.getOrDefault(student.getId(), new ArrayList<>()));
+            }
+        } else {
+            for (Student student : list) {
+                attachCommentLoader(student);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * First page of students sorted by name (case-insensitive), then id
+     * @param query Which students and columns to read
+     * @param pageSize Maximum number of students on the page
+     * @return The page; comments load on first access
+     */
+    public StudentPage getFirstStudentPage(StudentQuery query, int pageSize) {
+        return getStudentPage(query, "", 0, true, pageSize);
+    }
+
+    /**
+     * The page of students that comes right after a student (keyset pagination)
+     * @param query Which students and columns to read
+     * @param after The last student of the current page
+     * @param pageSize Maximum number of students on the page
+     */
+    public StudentPage getStudentPageAfter(StudentQuery query, Student after, int pageSize) {
+        return getStudentPage(query, after.getName(), after.getId(), true, pageSize);
+    }
+
+    /**
+     * The page of students that comes right before a student (keyset pagination)
+     * @param query Which students and columns to read
+     * @param before The first student of the current page
+     * @param pageSize Maximum number of students on the page
+     */
+    public StudentPage getStudentPageBefore(StudentQuery query, Student before, int pageSize) {
+        return getStudentPage(query, before.getName(), before.getId(), false, pageSize);
+    }
+
+    /**
+     * The page starting at the first student whose name is at or after a prefix
+     * @param query Which students and columns to read
+     * @param prefix Start of a name (case-insensitive)
+     * @param pageSize Maximum number of students on the page
+     */
+    public StudentPage getStudentPageStartingAt(StudentQuery query, String prefix, int pageSize) {
+        return getStudentPage(query, prefix == null ? "" : prefix.trim(), 0, true, pageSize);
+    }
+
+    /**
+     * Count students with COUNT(*); with a filter it only reads the matching entries of its index
+     * @param query Which students to count
+     */
+    public int countStudents(StudentQuery query) {
+        String conditions = query.conditions();
+        String sql = "SELECT COUNT(*) FROM Student"
+                + (conditions.isEmpty() ? "" : " WHERE " + conditions.substring(0, conditions.length() - " AND ".length()));
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            query.bind(stmt, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Seek to the cursor (name, id) through idx_Student_name (or the (filter column, name) index)
+     * and read one page in either direction. The name >= ? / name <= ? term is what lets SQLite
+     * start from the index position instead of scanning from the first row, so every page costs
+     * the same no matter how deep it is.
+     */
+    private StudentPage getStudentPage(StudentQuery query, String name, int id, boolean forward, int pageSize) {
+        int size = Math.max(1, pageSize);
+        String select = "SELECT " + query.columns() + " FROM Student WHERE " + query.conditions();
+        String sql = forward
+                ? select + "name >= ? COLLATE NOCASE AND (name > ? COLLATE NOCASE OR id > ?) "
+                  + "ORDER BY name COLLATE NOCASE, id LIMIT ?"
+                : select + "name <= ? COLLATE NOCASE AND (name < ? COLLATE NOCASE OR id < ?) "
+                  + "ORDER BY name COLLATE NOCASE DESC, id DESC LIMIT ?";
+
+        List<Student> list = new ArrayList<>();
+        boolean hasPrevious = false;
+        boolean hasNext = false;
+
+        try (Connection conn = ConnectionManager.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int i = query.bind(stmt, 1);
+                stmt.setString(i++, name);
+                stmt.setString(i++, name);
+                stmt.setInt(i++, id);
+                stmt.setInt(i, size + 1); // one extra row tells us whether there is more
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        list.add(query.isSummary() ? mapStudentSummary(rs) : mapStudent(rs));
+                    }
                 }
             }
+
+            boolean more = list.size() > size;
+            if (more) list.remove(list.size() - 1);
+            if (!forward) Collections.reverse(list);
+
+            if (forward) {
+                hasNext = more;
+                // Nothing sorts before the very start, so the first page needs no extra query
+                boolean fromStart = name.isEmpty() && id == 0;
+                hasPrevious = !fromStart && !list.isEmpty() && existsBeyond(conn, query, list.get(0), false);
+            } else {
+                hasPrevious = more;
+                hasNext = !list.isEmpty() && existsBeyond(conn, query, list.get(list.size() - 1), true);
+            }
+
+            List<Integer> ids = new ArrayList<>();
+            for (Student student : list) ids.add(student.getId());
+            Map<Integer, List<String>> languagesByStudent = studentLanguageDao.getLanguagesForStudents(conn, ids);
+            for (Student student : list) {
+                student.setLanguages(languagesByStudent.getOrDefault(student.getId(), new ArrayList<>()));
+                attachCommentLoader(student);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
-        
-        return updatedCount;
+        return new StudentPage(list, hasPrevious, hasNext);
     }
-}
 
+    /**
+     * Whether any student sorts after (or before) the given one
+     */
+    private boolean existsBeyond(Connection conn, StudentQuery query, Student edge, boolean after) throws SQLException {
+        String sql = after
+                ? "SELECT EXISTS(SELECT 1 FROM Student WHERE " + query.conditions()
+                  + "name >= ? COLLATE NOCASE AND (name > ? COLLATE NOCASE OR id > ?))"
+                : "SELECT EXISTS(SELECT 1 FROM Student WHERE " + query.conditions()
+                  + "name <= ? COLLATE NOCASE AND (name < ? COLLATE NOCASE OR id < ?))";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int i = query.bind(stmt, 1);
+            stmt.setString(i++, edge.getName());
+            stmt.setString(i++, edge.getName());
+            stmt.setInt(i, edge.getId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    /**
+     * Search students through the in-memory index (no database query once the index is loaded)
+     * Every word must be the start of a word in the name, academic status, DB skills, role or a language.
+     * @param query Words typed by the user
+     * @return Matching students sorted by name; comments load on first access
+     */
+    public List<Student> searchIndexed(String query) {
+        if (!searchIndex.isLoaded()) {
+            searchIndex.beginLoad(); // writes from here on are replayed over the snapshot
+            try {
+                searchIndex.load(readStudents("SELECT * FROM Student"));
+            } catch (SQLException e) {
+                searchIndex.abortLoad(); // left unloaded, so the next search tries again
+                System.err.println("Error loading the search index: " + e.getMessage());
+                e.printStackTrace();
+                return new ArrayList<>();
+            }
+        }
+        List<Student> results = searchIndex.getStudents(searchIndex.search(query));
+        for (Student student : results) {
+            attachCommentLoader(student);
+        }
+        return results;
+    }
+
+    /**
+     * Retrieve students by ID, keeping the order of the given list (e.g. search rank)
+     * @param ids Student IDs; IDs that no longer exist are skipped
+     * @param withComments true to load comments now, false to load them on first access
+     * @return Matching students in the order of ids
+     */
+    public List<Student> getStudentsByIds(List<Integer> ids, boolean withComments) {
+        List<Student> list = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) return list;
+
+        // The IDs go in as one JSON array so the statement is the same for any number of them
+        String sql = """
+            SELECT s.* FROM json_each(?) j
+            JOIN Student s ON s.id = j.value
+            ORDER BY j.key
+        """;
+        String idArray = ids.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, idArray);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                list.add(mapStudent(rs));
+            }
+            // Languages and comments come from one grouped query each, not one per student
+            Map<Integer, List<String>> languagesByStudent = studentLanguageDao.getLanguagesForStudents(conn, ids);
+            for (Student student : list) {
+                student.setLanguages(languagesByStudent.getOrDefault(student.getId(), new ArrayList<>()));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        if (!withComments) {
+            for (Student student : list) {
+                attachCommentLoader(student);
+            }
+            return list;
+        }
+
+        Map<Integer, List<Comment>> commentsByStudent = commentDao.getCommentsGroupedByStudentIds(ids);
+        for (Student student : list) {
+            student.setComments(commentsByStudent.getOrDefault(student.getId(), new ArrayList<>()));
+        }
+        return list;
+    }
+
+    private static List<Integer> ids(List<Student> students) {
+        List<Integer> ids = new ArrayList<>(students.size());
+        for (Student student : students) {
+            ids.add(student.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Remove a language from all students who have it
+     * @param languageName The language to remove (case-insensitive)
+     * @return Number of students updated
+     */
+    public int unassignLanguageFromAllStudents(String languageName) {
+        return new LanguageMaintenance().unassign(languageName);
+    }
+}
@@ -0,0 +1,210 @@
+package cs151.data;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data access for the StudentLanguage join table (student_id, language_id)
+ * Replaces the old comma-separated Student.languages column (the table itself is created
+ * by {@link SchemaMigrator}). Methods take the caller's connection so they run inside
+ * the same transaction as the Student write.
+ */
+final class StudentLanguageDAO {
+
+    /**
+     * Copy comma-separated Student.languages values into StudentLanguage, then clear the column.
+     * Languages that are not in the Language table yet are added to it.
+     * Run by {@link SchemaMigrator} inside its transaction.
+     */
+    void migrateLegacyColumn(Connection conn) throws SQLException {
+        Map<Integer, String> legacy = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT id, languages FROM Student WHERE languages IS NOT NULL AND languages <> ''")) {
+            while (rs.next()) {
+                legacy.put(rs.getInt("id"), rs.getString("languages"));
+            }
+        }
+        if (legacy.isEmpty()) return;
+
+        Map<String, Integer> languageIds = new HashMap<>();
+        for (Map.Entry<Integer, String> entry : legacy.entrySet()) {
+            List<String> names = new ArrayList<>();
+            for (String part : entry.getValue().split(",")) {
+                if (part.trim().isEmpty()) continue;
+                names.add(part.trim());
+                addLanguage(conn, part.trim(), languageIds);
+            }
+            replaceLanguages(conn, entry.getKey(), names, languageIds);
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE Student SET languages = NULL WHERE languages IS NOT NULL");
+        }
+        System.out.println("Moved languages of " + legacy.size() + " students into StudentLanguage");
+    }
+
+    /**
+     * Load the languages of every student in one query
+     * @return Map of student ID to language names in the order they were saved
+     */
+    Map<Integer, List<String>> getLanguagesGroupedByStudentId(Connection conn) throws SQLException {
+        Map<Integer, List<String>> grouped = new HashMap<>();
+        String sql = """
+            SELECT sl.student_id, l.name
+            FROM StudentLanguage sl
+            JOIN Language l ON l.id = sl.language_id
+            ORDER BY sl.student_id, sl.position
+        """;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                grouped.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>()).add(rs.getString(2));
+            }
+        }
+        return grouped;
+    }
+
+    /**
+     * Load the languages of a set of students (e.g. one page) in one query
+     * @return Map of student ID to language names in the order they were saved
+     */
+    Map<Integer, List<String>> getLanguagesForStudents(Connection conn, Collection<Integer> studentIds) throws SQLException {
+        Map<Integer, List<String>> grouped = new HashMap<>();
+        if (studentIds.isEmpty()) return grouped;
+
+        String sql = """
+            SELECT sl.student_id, l.name
+            FROM StudentLanguage sl
+            JOIN Language l ON l.id = sl.language_id
+            WHERE sl.student_id IN (SELECT value FROM json_each(?))
+            ORDER BY sl.student_id, sl.position
+        """;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, studentIds.toString()); // [1, 2, 3] is a valid JSON array
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    grouped.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>()).add(rs.getString(2));
+                }
+            }
+        }
+        return grouped;
+    }
+
+    /**
+     * Load the languages of one student
+     */
+    List<String> getLanguagesByStudentId(Connection conn, int studentId) throws SQLException {
+        List<String> names = new ArrayList<>();
+        String sql = """
+            SELECT l.name
+            FROM StudentLanguage sl
+            JOIN Language l ON l.id = sl.language_id
+            WHERE sl.student_id = ?
+            ORDER BY sl.position
+        """;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) names.add(rs.getString(1));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Replace a student's languages with the given list
+     * @param languageIds Cache of name (lower case) to Language id, shared across calls in a batch
+     * @return The names that were saved; see {@link #insertLanguages}
+     */
+    List<String> replaceLanguages(Connection conn, int studentId, List<String> names,
+                                  Map<String, Integer> languageIds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM StudentLanguage WHERE student_id = ?")) {
+            stmt.setInt(1, studentId);
+            stmt.executeUpdate();
+        }
+        return insertLanguages(conn, studentId, names, languageIds);
+    }
+
+    /**
+     * Add rows for a student that has no languages yet
+     * Names that are not defined on the Languages page are skipped with an error, not added.
+     * @param languageIds Cache of name (lower case) to Language id, shared across calls in a batch
+     * @return The names that were saved, in order, without duplicates or unknown languages
+     */
+    List<String> insertLanguages(Connection conn, int studentId, List<String> names,
+                                 Map<String, Integer> languageIds) throws SQLException {
+        List<String> saved = new ArrayList<>();
+        if (names == null || names.isEmpty()) return saved;
+
+        // Drop duplicates (case-insensitive) but keep the original order
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name == null || name.trim().isEmpty()) continue;
+            int id = resolveLanguageId(conn, name.trim(), languageIds);
+            if (id < 0) {
+                System.err.println("Skipping unknown language \"" + name.trim() + "\" for student " + studentId);
+            } else if (ids.add(id)) {
+                saved.add(name.trim());
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO StudentLanguage(student_id, language_id, position) VALUES(?, ?, ?)")) {
+            int position = 0;
+            for (int languageId : ids) {
+                stmt.setInt(1, studentId);
+                stmt.setInt(2, languageId);
+                stmt.setInt(3, position++);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        return saved;
+    }
+
+    /**
+     * Find a language id by name (case-insensitive)
+     * @return The id, or -1 if there is no such language
+     */
+    private int resolveLanguageId(Connection conn, String name, Map<String, Integer> languageIds) throws SQLException {
+        String key = name.toLowerCase();
+        Integer cached = languageIds.get(key);
+        if (cached != null) return cached;
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT id FROM Language WHERE name = ? COLLATE NOCASE ORDER BY id LIMIT 1")) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return -1;
+                int id = rs.getInt(1);
+                languageIds.put(key, id);
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Add a language if the Language table does not have it yet (case-insensitive)
+     * Used by the legacy column migration and by the initial data.
+     * @return true if it was added
+     */
+    boolean addLanguage(Connection conn, String name, Map<String, Integer> languageIds) throws SQLException {
+        if (resolveLanguageId(conn, name, languageIds) >= 0) return false;
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO Language(name) VALUES(?)")) {
+            stmt.setString(1, name);
+            stmt.executeUpdate();
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            rs.next();
+            languageIds.put(name.toLowerCase(), rs.getInt(1));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package cs151.data;
+
+import cs151.model.Student;
+import java.util.List;
+
+/**
+ * One page of students in (name, id) order, as returned by the StudentDAO keyset queries
+ * The first and last student double as cursors for fetching the neighbouring pages.
+ */
+public class StudentPage {
+    private final List<Student> students;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    public StudentPage(List<Student> students, boolean hasPrevious, boolean hasNext) {
+        this.students = students;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public boolean isEmpty() {
+        return students.isEmpty();
+    }
+
+    /**
+     * @return true if there are students sorted before the first one on this page
+     */
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+
+    /**
+     * @return true if there are students sorted after the last one on this page
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public Student getFirst() {
+        return students.isEmpty() ? null : students.get(0);
+    }
+
+    public Student getLast() {
+        return students.isEmpty() ? null : students.get(students.size() - 1);
+    }
+}
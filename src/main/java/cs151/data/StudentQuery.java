@@ -0,0 +1,158 @@
+package cs151.data;
+
+import cs151.model.Student;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Which students a paged or counted StudentDAO query returns, and which columns it reads
+ * Filters are equality tests on indexed columns (flag, academicStatus, role, comment_count);
+ * null means any.
+ * Instances are immutable: the with... methods return a changed copy.
+ */
+public final class StudentQuery {
+    private static final StudentQuery ALL = new StudentQuery(null, null, null, null, false);
+
+    private final String flag;
+    private final String academicStatus;
+    private final String role;
+    private final Integer commentCount;
+    private final boolean summary;
+
+    private StudentQuery(String flag, String academicStatus, String role, Integer commentCount, boolean summary) {
+        this.flag = flag;
+        this.academicStatus = academicStatus;
+        this.role = role;
+        this.commentCount = commentCount;
+        this.summary = summary;
+    }
+
+    /**
+     * Every student, every column
+     */
+    public static StudentQuery all() {
+        return ALL;
+    }
+
+    public StudentQuery withFlag(String flag) {
+        return new StudentQuery(flag, academicStatus, role, commentCount, summary);
+    }
+
+    public StudentQuery withAcademicStatus(String academicStatus) {
+        return new StudentQuery(flag, academicStatus, role, commentCount, summary);
+    }
+
+    public StudentQuery withRole(String role) {
+        return new StudentQuery(flag, academicStatus, role, commentCount, summary);
+    }
+
+    /**
+     * Only students with exactly this many comments (e.g. 0 for students not yet evaluated)
+     */
+    public StudentQuery withCommentCount(Integer commentCount) {
+        return new StudentQuery(flag, academicStatus, role, commentCount, summary);
+    }
+
+    /**
+     * Read only the columns report tables show (name, academic status, DB skills, role, flag);
+     * email, employment status and job details are left null
+     */
+    public StudentQuery summaryColumns() {
+        return new StudentQuery(flag, academicStatus, role, commentCount, true);
+    }
+
+    public String getFlag() {
+        return flag;
+    }
+
+    public String getAcademicStatus() {
+        return academicStatus;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Integer getCommentCount() {
+        return commentCount;
+    }
+
+    public boolean isSummary() {
+        return summary;
+    }
+
+    /**
+     * Whether a student passes the filters, the same test the WHERE clause makes
+     */
+    public boolean matches(Student student) {
+        return (flag == null || flag.equals(student.getFlag()))
+                && (academicStatus == null || academicStatus.equals(student.getAcademicStatus()))
+                && (role == null || role.equals(student.getRole()))
+                && (commentCount == null || commentCount == student.getCommentCount());
+    }
+
+    /**
+     * @return true if the query has no filters and selects every student
+     */
+    public boolean isUnfiltered() {
+        return flag == null && academicStatus == null && role == null && commentCount == null;
+    }
+
+    /**
+     * Column list for the SELECT
+     */
+    String columns() {
+        return summary
+                ? "id, name, academicStatus, dbSkills, role, flag, comment_count, last_comment_date, last_comment_preview"
+                : "id, name, academicStatus, email, dbSkills, role, employmentStatus, jobDetails, flag, "
+                  + "comment_count, last_comment_date, last_comment_preview";
+    }
+
+    /**
+     * The filter conditions, each followed by " AND ", to put in front of the rest of a WHERE clause
+     */
+    String conditions() {
+        StringBuilder sql = new StringBuilder();
+        if (flag != null) sql.append("flag = ? AND ");
+        if (academicStatus != null) sql.append("academicStatus = ? AND ");
+        if (role != null) sql.append("role = ? AND ");
+        if (commentCount != null) sql.append("comment_count = ? AND ");
+        return sql.toString();
+    }
+
+    /**
+     * Bind the filter values for {@link #conditions()}
+     * @return The next free parameter index
+     */
+    int bind(PreparedStatement stmt, int index) throws SQLException {
+        if (flag != null) stmt.setString(index++, flag);
+        if (academicStatus != null) stmt.setString(index++, academicStatus);
+        if (role != null) stmt.setString(index++, role);
+        if (commentCount != null) stmt.setInt(index++, commentCount);
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof StudentQuery other)) return false;
+        return summary == other.summary
+                && Objects.equals(flag, other.flag)
+                && Objects.equals(academicStatus, other.academicStatus)
+                && Objects.equals(role, other.role)
+                && Objects.equals(commentCount, other.commentCount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(flag, academicStatus, role, commentCount, summary);
+    }
+
+    @Override
+    public String toString() {
+        return "StudentQuery[flag=" + flag + ", academicStatus=" + academicStatus
+                + ", role=" + role + ", commentCount=" + commentCount + (summary ? ", summary" : "") + "]";
+    }
+}
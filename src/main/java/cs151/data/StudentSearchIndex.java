@@ -0,0 +1,459 @@
+package cs151.data;
+
+import cs151.model.Student;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over the fields the Search page filters on:
+ * name, academicStatus, dbSkills, role and languages
+ *
+ * Every field is split into lower-case tokens. The index keeps an exact posting map
+ * (token -> student ids) and a prefix trie in which every node knows which students
+ * have a token passing through it, so a prefix lookup is one walk down the trie with
+ * no scan and no database round trip.
+ *
+ * The index is filled once from the database and then kept current by StudentDAO
+ * and LanguageDAO as they write, so it never has to be rebuilt. Writes made while the
+ * snapshot is being read are recorded and replayed on top of it, so none is lost.
+ *
+ * Results of recent queries are kept as sorted id arrays. Typing usually extends the
+ * previous query ("jav" -> "java"), so a query that refines the last one filters that
+ * result instead of searching everything; one seen recently is answered from the cache.
+ * Any change to the index clears both.
+ */
+public final class StudentSearchIndex {
+    private static final StudentSearchIndex INSTANCE = new StudentSearchIndex();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final TrieNode root = new TrieNode();
+    // Indexed copy of each student and the tokens it was indexed under (needed to remove it again)
+    private final Map<Integer, Student> documents = new HashMap<>();
+    private final Map<Integer, Set<String>> tokensById = new HashMap<>();
+    private boolean loaded;
+    private int loaders; // beginLoad() calls not yet followed by load() or abortLoad()
+    // Changes made between beginLoad() and load(), replayed in order once the snapshot is in
+    private final List<Runnable> pendingChanges = new ArrayList<>();
+
+    // Recent query -> matching ids in name order, bounded by entries and total ids held
+    private final LruCache<String, int[]> recentQueries = new LruCache<>("Search query cache",
+            Integer.getInteger("cs151.search.recentQueries", 32), 1_000_000L, ids -> ids.length);
+    private volatile QueryResult lastResult;
+
+    private record QueryResult(List<String> terms, int[] ids) {
+    }
+
+    StudentSearchIndex() { // package-private so tests can build an index of their own
+    }
+
+    public static StudentSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Start recording changes; call before reading the students passed to load()
+     */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) loaders++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The snapshot for a load could not be read; the index stays unloaded so a later search retries
+     */
+    public void abortLoad() {
+        lock.writeLock().lock();
+        try {
+            if (loaded || loaders == 0) return;
+            if (--loaders == 0) pendingChanges.clear(); // the next load reads them from the database
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fill the index with every student, then replay the changes recorded since beginLoad().
+     * Does nothing if it is already loaded.
+     * @param students All students, with languages, read after beginLoad()
+     */
+    public void load(Collection<Student> students) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) return;
+            for (Student student : students) {
+                index(student);
+            }
+            // The snapshot may or may not include a recorded change; replaying it is safe either way
+            for (Runnable change : pendingChanges) {
+                change.run();
+            }
+            pendingChanges.clear();
+            loaders = 0;
+            loaded = true;
+            clearQueryCache();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a student or replace its previous entry. Ignored until a load has begun.
+     */
+    void put(Student student) {
+        Student copy = StudentDAO.copyOf(student);
+        apply(() -> {
+            unindex(copy.getId());
+            index(copy);
+        });
+    }
+
+    /**
+     * Remove a student from the index
+     */
+    void remove(int studentId) {
+        apply(() -> unindex(studentId));
+    }
+
+    /**
+     * Rename a language on every indexed student that has it (case-insensitive)
+     * @param newName The new name, or null to take the language away from those students
+     */
+    void renameLanguage(String oldName, String newName) {
+        apply(() -> {
+            for (int id : studentsWithLanguage(oldName)) {
+                Student student = documents.get(id);
+                List<String> languages = new ArrayList<>();
+                boolean hasNewName = newName != null
+                        && student.getLanguages().stream().anyMatch(newName::equalsIgnoreCase);
+                for (String language : student.getLanguages()) {
+                    if (!language.equalsIgnoreCase(oldName)) {
+                        languages.add(language);
+                    } else if (newName != null && !hasNewName) {
+                        languages.add(newName); // a merge must not leave the student with the language twice
+                    }
+                }
+                Student updated = StudentDAO.copyOf(student);
+                updated.setLanguages(languages);
+                unindex(id);
+                index(updated);
+            }
+        });
+    }
+
+    /**
+     * Take a language away from every indexed student that has it
+     */
+    void removeLanguage(String name) {
+        renameLanguage(name, null);
+    }
+
+    /**
+     * Find students with a token starting with each word of the query
+     * @param query Words typed by the user; all of them must match
+     * @return Matching student IDs sorted by name (case-insensitive)
+     */
+    public List<Integer> search(String query) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) return new ArrayList<>();
+
+        List<String> sortedTerms = new ArrayList<>(terms);
+        sortedTerms.sort(null);
+        String key = String.join(" ", sortedTerms); // word order does not change the result
+
+        lock.readLock().lock();
+        try {
+            int[] ids = recentQueries.get(key);
+            if (ids == null) {
+                QueryResult last = lastResult;
+                ids = last != null && refines(terms, last.terms())
+                        ? narrow(last.ids(), terms)
+                        : searchAll(terms);
+                // Stored under the read lock, so no write can slip in between and leave it stale
+                recentQueries.put(key, ids);
+            }
+            lastResult = new QueryResult(terms, ids);
+
+            List<Integer> result = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                result.add(id);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Size and hit / miss counters of the recent query cache
+     */
+    public String getQueryCacheStats() {
+        return recentQueries.toString();
+    }
+
+    /**
+     * Students that have exactly this token (no prefix matching)
+     */
+    public Set<Integer> getExactMatches(String token) {
+        lock.readLock().lock();
+        try {
+            Set<Integer> ids = postings.get(token.toLowerCase(Locale.ROOT));
+            return ids == null ? new HashSet<>() : new HashSet<>(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies of the indexed students, in the given order (without comments)
+     */
+    public List<Student> getStudents(List<Integer> ids) {
+        List<Student> students = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int id : ids) {
+                Student student = documents.get(id);
+                if (student != null) students.add(StudentDAO.copyOf(student));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return students;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split text into lower-case tokens of letters and digits; '+' and '#' are kept so C++ and C# survive
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '+' || c == '#') {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) tokens.add(current.toString());
+        return tokens;
+    }
+
+    /**
+     * True if every student matching query also matches previous, i.e. each word of the
+     * previous query is a prefix of some word of the new one ("jav" -> "java", "java" -> "java sen")
+     */
+    static boolean refines(List<String> query, List<String> previous) {
+        for (String old : previous) {
+            boolean covered = false;
+            for (String term : query) {
+                if (term.startsWith(old)) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) return false;
+        }
+        return true;
+    }
+
+    // --- internals, caller holds the read lock ---
+
+    /**
+     * Intersect the trie matches of every term and sort by name
+     */
+    private int[] searchAll(List<String> terms) {
+        List<Set<Integer>> matches = new ArrayList<>();
+        for (String term : terms) {
+            TrieNode node = find(term);
+            if (node == null) return new int[0];
+            matches.add(node.ids.keySet());
+        }
+
+        // Intersect starting from the smallest set
+        matches.sort(Comparator.comparingInt(Set::size));
+        Set<Integer> result = new HashSet<>(matches.get(0));
+        for (int i = 1; i < matches.size() && !result.isEmpty(); i++) {
+            result.retainAll(matches.get(i));
+        }
+
+        List<Integer> ids = new ArrayList<>(result);
+        ids.sort(Comparator.comparing((Integer id) -> documents.get(id).getName(), String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(Comparator.naturalOrder()));
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Keep the candidates that match every term; they are already in name order, so no sort is needed
+     */
+    private int[] narrow(int[] candidates, List<String> terms) {
+        List<TrieNode> nodes = new ArrayList<>();
+        for (String term : terms) {
+            TrieNode node = find(term);
+            if (node == null) return new int[0];
+            nodes.add(node);
+        }
+        // Most selective term first, so misses are found with one lookup
+        nodes.sort(Comparator.comparingInt(node -> node.ids.size()));
+
+        int[] kept = new int[candidates.length];
+        int count = 0;
+        for (int id : candidates) {
+            boolean matchesAll = true;
+            for (TrieNode node : nodes) {
+                if (!node.ids.containsKey(id)) {
+                    matchesAll = false;
+                    break;
+                }
+            }
+            if (matchesAll) kept[count++] = id;
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    // --- internals, caller holds the write lock ---
+
+    /**
+     * Apply a change now if the index is loaded, keep it for load() if a load is under way,
+     * otherwise drop it (the load will read the change from the database)
+     */
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                change.run();
+                clearQueryCache();
+            } else if (loaders > 0) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clearQueryCache() {
+        recentQueries.invalidateAll();
+        lastResult = null;
+    }
+
+    private void index(Student student) {
+        int id = student.getId();
+        Student copy = StudentDAO.copyOf(student);
+
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokenize(copy.getName()));
+        tokens.addAll(tokenize(copy.getAcademicStatus()));
+        tokens.addAll(tokenize(copy.getDbSkills()));
+        tokens.addAll(tokenize(copy.getRole()));
+        for (String language : copy.getLanguages()) {
+            tokens.addAll(tokenize(language));
+        }
+
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, k -> new HashSet<>()).add(id);
+            TrieNode node = root;
+            for (int i = 0; i < token.length(); i++) {
+                node = node.children.computeIfAbsent(token.charAt(i), k -> new TrieNode());
+                node.ids.merge(id, 1, Integer::sum);
+            }
+        }
+        documents.put(id, copy);
+        tokensById.put(id, tokens);
+    }
+
+    private void unindex(int id) {
+        Set<String> tokens = tokensById.remove(id);
+        documents.remove(id);
+        if (tokens == null) return;
+
+        for (String token : tokens) {
+            Set<Integer> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) postings.remove(token);
+            }
+
+            TrieNode parent = root;
+            for (int i = 0; i < token.length(); i++) {
+                char c = token.charAt(i);
+                TrieNode node = parent.children.get(c);
+                if (node == null) break;
+                // Counts only shrink along the path, so once a node is empty its subtree is too
+                if (node.ids.merge(id, -1, Integer::sum) <= 0) node.ids.remove(id);
+                if (node.ids.isEmpty()) {
+                    parent.children.remove(c);
+                    break;
+                }
+                parent = node;
+            }
+        }
+    }
+
+    private Set<Integer> studentsWithLanguage(String name) {
+        Set<Integer> ids = new HashSet<>();
+        List<String> tokens = tokenize(name);
+        Set<Integer> candidates = tokens.isEmpty() ? documents.keySet() : postings.get(tokens.get(0));
+        if (candidates == null) return ids;
+        for (int id : candidates) {
+            for (String language : documents.get(id).getLanguages()) {
+                if (language.equalsIgnoreCase(name)) {
+                    ids.add(id);
+                    break;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private TrieNode find(String prefix) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Trie node; ids counts, per student, how many of its tokens pass through this node
+     */
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final Map<Integer, Integer> ids = new HashMap<>();
+    }
+}
@@ -0,0 +1,82 @@
+package cs151.model;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * A student's comments in one line: how many, the newest date and the start of the newest comment
+ * Built from the counters stored with the student, so showing or sorting it never loads or joins comments.
+ */
+public final class CommentSummary implements Comparable<CommentSummary> {
+    public static final CommentSummary NONE = new CommentSummary(0, null, null);
+    // Characters of the newest comment shown before the ellipsis
+    public static final int PREVIEW_LENGTH = 60;
+
+    private static final Comparator<CommentSummary> ORDER = Comparator
+            .comparingInt(CommentSummary::getCount)
+            .thenComparing(CommentSummary::getLatestDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final int count;
+    private final LocalDate latestDate;
+    private final String preview;
+    private final String text;
+
+    /**
+     * @param count Number of comments
+     * @param latestDate Date of the newest comment, or null if there are none
+     * @param latestContent The newest comment's text (or its start), or null if there are none
+     */
+    public CommentSummary(int count, LocalDate latestDate, String latestContent) {
+        this.count = count;
+        this.latestDate = latestDate;
+        this.preview = truncate(latestContent);
+        this.text = buildText();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public LocalDate getLatestDate() {
+        return latestDate;
+    }
+
+    /**
+     * The start of the newest comment, ending in "…" if it was cut, or null if there are none
+     */
+    public String getPreview() {
+        return preview;
+    }
+
+    /**
+     * The line shown in a table cell, built once
+     */
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public int compareTo(CommentSummary other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private static String truncate(String content) {
+        if (content == null) return null;
+        String line = content.strip().replaceAll("\\s+", " ");
+        return line.length() <= PREVIEW_LENGTH ? line : line.substring(0, PREVIEW_LENGTH).stripTrailing() + "…";
+    }
+
+    private String buildText() {
+        if (count == 0) return "N/A";
+        StringBuilder sb = new StringBuilder();
+        sb.append(count).append(count == 1 ? " comment" : " comments");
+        if (latestDate != null) sb.append(" · ").append(latestDate);
+        if (preview != null) sb.append(" · ").append(preview);
+        return sb.toString();
+    }
+}
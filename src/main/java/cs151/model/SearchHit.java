@@ -0,0 +1,42 @@
+package cs151.model;
+
+/**
+ * One result of a full-text search: the matching student, its rank and a highlighted excerpt
+ */
+public class SearchHit {
+    private final int studentId;
+    private final double score;
+    private final String snippet;
+
+    /**
+     * @param studentId The ID of the matching student
+     * @param score bm25 rank from SQLite (lower is a better match)
+     * @param snippet Excerpt of the matching text with the matched words in [brackets]
+     */
+    public SearchHit(int studentId, double score, String snippet) {
+        this.studentId = studentId;
+        this.score = score;
+        this.snippet = snippet;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHit{" +
+                "studentId=" + studentId +
+                ", score=" + score +
+                ", snippet='" + snippet + '\'' +
+                '}';
+    }
+}
@@ -1,7 +1,9 @@
 package cs151.model;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Represents a Student entity
@@ -19,6 +21,11 @@ public class Student {
     private String jobDetails;              // Required
     private List<Comment> comments = new ArrayList<>();                // Required
     private String flag;                    // Required
+    private Supplier<List<Comment>> commentLoader;  // Loads comments on first access when not fetched eagerly
+    private int commentCount;               // Number of comments, known without loading them
+    private LocalDate lastCommentDate;      // Date of the newest comment, or null if there are none
+    private String lastCommentPreview;      // Start of the newest comment, or null if there are none
+    private CommentSummary commentSummary;  // Built from the three fields above on first use
 
     /**
      * Constructor for creating a new Student (without ID)
@@ -59,10 +66,36 @@ public class Student {
         this.employmentStatus = employmentStatus;
         this.jobDetails = jobDetails;
         this.comments = comments != null ? comments : new ArrayList<>();
+        this.commentCount = this.comments.size();
         this.flag = flag;
 
     }
 
+    /**
+     * Copy constructor, for a view that keeps or edits a student it was handed by someone else
+     * (e.g. a change event shared by every open window). Languages and loaded comments are
+     * copied into new lists; comments not loaded yet are loaded by the copy on its own.
+     * @param other The student to copy
+     */
+    public Student(Student other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.academicStatus = other.academicStatus;
+        this.email = other.email;
+        this.languages = other.languages != null ? new ArrayList<>(other.languages) : new ArrayList<>();
+        this.dbSkills = other.dbSkills;
+        this.role = other.role;
+        this.employmentStatus = other.employmentStatus;
+        this.jobDetails = other.jobDetails;
+        this.comments = other.comments != null ? new ArrayList<>(other.comments) : null;
+        this.commentLoader = other.commentLoader;
+        this.flag = other.flag;
+        this.commentCount = other.commentCount;
+        this.lastCommentDate = other.lastCommentDate;
+        this.lastCommentPreview = other.lastCommentPreview;
+        this.commentSummary = other.commentSummary;
+    }
+
     // Getters and Setters
     public int getId() {
         return id;
@@ -128,13 +161,92 @@ public class Student {
 
     public void setJobDetails(String jobDetails) { this.jobDetails = jobDetails; }
 
-    public List<Comment> getComments() { return comments; }
+    /**
+     * Get the student's comments, loading them on first access if they were not fetched eagerly
+     */
+    public List<Comment> getComments() {
+        if (comments == null && commentLoader != null) {
+            List<Comment> loaded = commentLoader.get();
+            comments = loaded != null ? loaded : new ArrayList<>();
+            commentCount = comments.size();
+            commentSummary = null;
+            commentLoader = null;
+        }
+        return comments;
+    }
+
+    public void setComments(List<Comment> comments) {
+        this.comments = comments;
+        this.commentCount = comments != null ? comments.size() : 0;
+        this.commentSummary = null;
+        this.commentLoader = null;
+    }
+
+    /**
+     * Number of comments, without loading them: the count stored with the student,
+     * kept in step with the comment list once that is loaded or changed
+     */
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+        this.commentSummary = null;
+    }
+
+    public LocalDate getLastCommentDate() {
+        return lastCommentDate;
+    }
+
+    public void setLastCommentDate(LocalDate lastCommentDate) {
+        this.lastCommentDate = lastCommentDate;
+        this.commentSummary = null;
+    }
+
+    public String getLastCommentPreview() {
+        return lastCommentPreview;
+    }
+
+    public void setLastCommentPreview(String lastCommentPreview) {
+        this.lastCommentPreview = lastCommentPreview;
+        this.commentSummary = null;
+    }
+
+    /**
+     * Count, newest date and start of the newest comment, without loading the comments;
+     * built once and kept until one of those changes
+     */
+    public CommentSummary getCommentSummary() {
+        if (commentSummary == null) {
+            commentSummary = commentCount == 0
+                    ? CommentSummary.NONE
+                    : new CommentSummary(commentCount, lastCommentDate, lastCommentPreview);
+        }
+        return commentSummary;
+    }
+
+    /**
+     * Defer loading comments until getComments() is first called
+     * @param commentLoader Supplies the comments when they are needed
+     */
+    public void setCommentLoader(Supplier<List<Comment>> commentLoader) {
+        this.comments = null;
+        this.commentLoader = commentLoader;
+    }
 
-    public void setComments(List<Comment> comments) { this.comments = comments; }
+    /**
+     * @return true if the comments are already in memory
+     */
+    public boolean isCommentsLoaded() {
+        return comments != null;
+    }
 
     public void addComment(Comment comment) {
-        if (this.comments == null) this.comments = new ArrayList<>();
+        if (getComments() == null) this.comments = new ArrayList<>();
         this.comments.add(comment);
+        this.commentCount = this.comments.size();
+        this.commentSummary = null;
     }
 
     public String getFlag() { return flag; }
@@ -187,7 +299,7 @@ public class Student {
                 ", role='" + role + '\'' +
                 ", employmentStatus='" + employmentStatus + '\'' +
                 ", jobDetails='" + jobDetails + '\'' +
-                ", comments='" + comments + '\'' +
+                ", comments='" + (isCommentsLoaded() ? comments : "(not loaded)") + '\'' +
                 ", flag='" + flag + '\'' +
                 '}';
     }
@@ -0,0 +1,98 @@
+package cs151.model;
+
+import java.util.Map;
+
+/**
+ * Snapshot of the counts shown on the Statistics page
+ * Every map goes from a value (e.g. "Senior", "Java") to the number of students with it,
+ * largest count first. Missing values are counted under "None".
+ */
+public class StudentStatistics {
+    private final int totalStudents;
+    private final int totalComments;
+    private final Map<String, Integer> byFlag;
+    private final Map<String, Integer> byAcademicStatus;
+    private final Map<String, Integer> byRole;
+    private final Map<String, Integer> byEmploymentStatus;
+    private final Map<String, Map<String, Integer>> flagByAcademicStatus;
+    private final Map<String, Integer> languages;
+    private final Map<String, Integer> dbSkills;
+    private final Map<Integer, Integer> commentsPerStudent;
+
+    /**
+     * @param flagByAcademicStatus Academic status -> flag -> number of students
+     * @param commentsPerStudent Number of comments -> number of students with that many, in ascending order
+     */
+    public StudentStatistics(int totalStudents, int totalComments,
+                             Map<String, Integer> byFlag, Map<String, Integer> byAcademicStatus,
+                             Map<String, Integer> byRole, Map<String, Integer> byEmploymentStatus,
+                             Map<String, Map<String, Integer>> flagByAcademicStatus,
+                             Map<String, Integer> languages, Map<String, Integer> dbSkills,
+                             Map<Integer, Integer> commentsPerStudent) {
+        this.totalStudents = totalStudents;
+        this.totalComments = totalComments;
+        this.byFlag = byFlag;
+        this.byAcademicStatus = byAcademicStatus;
+        this.byRole = byRole;
+        this.byEmploymentStatus = byEmploymentStatus;
+        this.flagByAcademicStatus = flagByAcademicStatus;
+        this.languages = languages;
+        this.dbSkills = dbSkills;
+        this.commentsPerStudent = commentsPerStudent;
+    }
+
+    public int getTotalStudents() {
+        return totalStudents;
+    }
+
+    public int getTotalComments() {
+        return totalComments;
+    }
+
+    public double getAverageCommentsPerStudent() {
+        return totalStudents == 0 ? 0.0 : (double) totalComments / totalStudents;
+    }
+
+    public Map<String, Integer> getByFlag() {
+        return byFlag;
+    }
+
+    public Map<String, Integer> getByAcademicStatus() {
+        return byAcademicStatus;
+    }
+
+    public Map<String, Integer> getByRole() {
+        return byRole;
+    }
+
+    public Map<String, Integer> getByEmploymentStatus() {
+        return byEmploymentStatus;
+    }
+
+    public Map<String, Map<String, Integer>> getFlagByAcademicStatus() {
+        return flagByAcademicStatus;
+    }
+
+    public Map<String, Integer> getLanguages() {
+        return languages;
+    }
+
+    public Map<String, Integer> getDbSkills() {
+        return dbSkills;
+    }
+
+    public Map<Integer, Integer> getCommentsPerStudent() {
+        return commentsPerStudent;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentStatistics{" +
+                "totalStudents=" + totalStudents +
+                ", totalComments=" + totalComments +
+                ", byFlag=" + byFlag +
+                ", byAcademicStatus=" + byAcademicStatus +
+                ", byRole=" + byRole +
+                '}';
+    }
+}
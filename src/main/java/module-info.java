@@ -16,4 +16,5 @@ module cs151.application {
     exports cs151.controller;
     exports cs151.model;
     exports cs151.controller.services;
+    exports cs151.controller.cells;
 }
\ No newline at end of file
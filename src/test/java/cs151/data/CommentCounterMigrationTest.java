@@ -0,0 +1,169 @@
+package cs151.data;
+
+import cs151.model.Comment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Migrates a database written before the comment counters existed, then checks that
+ * comment_count, last_comment_date and last_comment_preview stay exact through every
+ * kind of comment write
+ */
+class CommentCounterMigrationTest {
+    private static final String LONG_CONTENT = "x".repeat(250);
+
+    private static final int ADA = 1;
+    private static final int LINUS = 2;
+
+    @TempDir
+    static Path dir;
+
+    @BeforeAll
+    static void migrateLegacyDatabase() throws SQLException {
+        String url = "jdbc:sqlite:" + dir.resolve("students.db");
+
+        // Tables as the application created them before SchemaMigrator, with two comments for Ada
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE Student (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    name TEXT NOT NULL,
+                    academicStatus TEXT NOT NULL,
+                    email TEXT,
+                    languages TEXT,
+                    dbSkills TEXT,
+                    role TEXT,
+                    employmentStatus TEXT,
+                    jobDetails TEXT,
+                    flag TEXT
+                )
+            """);
+            stmt.execute("""
+                CREATE TABLE Comment (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    student_id INTEGER NOT NULL,
+                    content TEXT NOT NULL,
+                    date TEXT NOT NULL,
+                    FOREIGN KEY (student_id) REFERENCES Student(id) ON DELETE CASCADE
+                )
+            """);
+            stmt.execute("INSERT INTO Student(id, name, academicStatus, languages) VALUES (1, 'Ada', 'Senior', 'Java, C++')");
+            stmt.execute("INSERT INTO Student(id, name, academicStatus) VALUES (2, 'Linus', 'Junior')");
+            stmt.execute("INSERT INTO Comment(student_id, content, date) VALUES (1, 'older', '2024-01-05')");
+            stmt.execute("INSERT INTO Comment(student_id, content, date) VALUES (1, '" + LONG_CONTENT + "', '2024-03-01')");
+        }
+
+        System.setProperty("cs151.db.url", url);
+        SchemaMigrator.migrate();
+        assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.getCurrentVersion());
+    }
+
+    @AfterAll
+    static void closeConnections() {
+        ConnectionManager.shutdown();
+    }
+
+    @Test
+    void countersFollowEveryCommentWrite() throws SQLException {
+        CommentDAO comments = new CommentDAO();
+
+        // Backfilled by the migration; the preview is cut at 200 characters
+        assertCounters(ADA, 2, "2024-03-01", LONG_CONTENT.substring(0, 200));
+        assertCounters(LINUS, 0, null, null);
+
+        // An older comment changes the count only
+        assertTrue(comments.addComment(new Comment(0, ADA, "oldest", "2023-12-01")));
+        assertCounters(ADA, 3, "2024-03-01", LONG_CONTENT.substring(0, 200));
+
+        // A newer one becomes the latest
+        assertTrue(comments.addComment(new Comment(0, ADA, "newest", "2024-04-01")));
+        assertCounters(ADA, 4, "2024-04-01", "newest");
+
+        // Moving the newest comment to another student updates both
+        int newest = commentId(ADA, "newest");
+        execute("UPDATE Comment SET student_id = " + LINUS + " WHERE id = " + newest);
+        assertCounters(ADA, 3, "2024-03-01", LONG_CONTENT.substring(0, 200));
+        assertCounters(LINUS, 1, "2024-04-01", "newest");
+
+        // Moving a comment back in time makes the next one the latest
+        int longest = commentId(ADA, LONG_CONTENT);
+        assertTrue(comments.updateComment(new Comment(longest, ADA, LONG_CONTENT, "2023-01-01")));
+        assertCounters(ADA, 3, "2024-01-05", "older");
+
+        // Deleting the latest comment falls back to the one before it
+        assertTrue(comments.deleteComment(commentId(ADA, "older")));
+        assertCounters(ADA, 2, "2023-12-01", "oldest");
+
+        // Deleting a student takes its comments and leaves the other student's counters alone
+        assertTrue(new StudentDAO().deleteStudent(LINUS));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM Comment WHERE student_id = " + LINUS));
+        assertFalse(studentExists(LINUS));
+        assertCounters(ADA, 2, "2023-12-01", "oldest");
+
+        // Deleting every comment clears all three
+        assertTrue(comments.deleteCommentsByStudentId(ADA));
+        assertCounters(ADA, 0, null, null);
+    }
+
+    private static void assertCounters(int studentId, int count, String lastDate, String preview) throws SQLException {
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT comment_count, last_comment_date, last_comment_preview FROM Student WHERE id = ?")) {
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next(), "student " + studentId);
+                assertEquals(count, rs.getInt(1), "comment_count of " + studentId);
+                assertEquals(lastDate, rs.getString(2), "last_comment_date of " + studentId);
+                assertEquals(preview, rs.getString(3), "last_comment_preview of " + studentId);
+            }
+        }
+        assertEquals(count, queryInt("SELECT COUNT(*) FROM Comment WHERE student_id = " + studentId));
+    }
+
+    private static int commentId(int studentId, String content) throws SQLException {
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT id FROM Comment WHERE student_id = ? AND content = ?")) {
+            stmt.setInt(1, studentId);
+            stmt.setString(2, content);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next(), "comment '" + content + "' of " + studentId);
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static boolean studentExists(int studentId) throws SQLException {
+        return queryInt("SELECT COUNT(*) FROM Student WHERE id = " + studentId) > 0;
+    }
+
+    private static int queryInt(String sql) throws SQLException {
+        try (Connection conn = ConnectionManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection conn = ConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package cs151.data;
+
+import cs151.model.Language;
+import cs151.model.Student;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The initial data on an empty database: students may only reference defined languages,
+ * so the seeded languages must be defined with them or the students lose theirs
+ */
+class DataInitializerTest {
+    @TempDir
+    static Path dir;
+
+    @BeforeAll
+    static void useEmptyDatabase() {
+        System.setProperty("cs151.db.url", "jdbc:sqlite:" + dir.resolve("students.db"));
+    }
+
+    @AfterAll
+    static void closeConnections() {
+        ConnectionManager.shutdown();
+    }
+
+    @Test
+    void seededStudentsKeepTheirLanguages() {
+        DataInitializer.initializeData();
+
+        Map<String, List<String>> expected = Map.of(
+                "Alice Johnson", List.of("Java", "Python", "C++"),
+                "Bob Smith", List.of("JavaScript", "Python", "Ruby"),
+                "Carol Martinez", List.of("Java", "C++", "SQL"),
+                "David Lee", List.of("Python", "JavaScript"),
+                "Emma Wilson", List.of("Java", "C++"),
+                "Frank Brown", List.of("Python"));
+        List<Student> students = new StudentDAO().getAllStudents("name", "ASC", false);
+        assertEquals(expected.size(), students.size());
+        for (Student student : students) {
+            assertEquals(expected.get(student.getName()), student.getLanguages(), student.getName());
+        }
+
+        List<String> languages = new ArrayList<>();
+        for (Language language : new LanguageDAO().getAllLanguages()) {
+            languages.add(language.getName());
+        }
+        languages.sort(null);
+        List<String> seeded = new ArrayList<>(DataInitializer.LANGUAGES);
+        seeded.sort(null);
+        assertEquals(seeded, languages);
+    }
+}
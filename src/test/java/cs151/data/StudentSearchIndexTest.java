@@ -0,0 +1,151 @@
+package cs151.data;
+
+import cs151.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Searches that refine the previous query, or repeat a recent one, must return what a
+ * search over the whole index returns. Each expected result comes from a fresh index that
+ * has never seen a query, so it takes the full trie intersection.
+ */
+class StudentSearchIndexTest {
+    private final Map<Integer, Student> students = new TreeMap<>();
+    private StudentSearchIndex index;
+
+    @BeforeEach
+    void loadIndex() {
+        add(1, "Jane Doe", "Senior", "Student", "MySQL", "Java", "Python");
+        add(2, "Javier Ortiz", "Junior", "Teaching Assistant", "Postgres", "JavaScript");
+        add(3, "Sam Lee", "Senior", "Student", "", "C++", "Java");
+        add(4, "Jack Smith", "Sophomore", "Student", "MySQL, Postgres", "Kotlin");
+        add(5, "alex jansen", "Senior", "Researcher", "SQLite", "Python");
+        add(6, "Maria Senna", "Junior", "Student", "", "Java", "Kotlin");
+        add(7, "Jane Senior", "Freshman", "Student", "", "C#");
+        index = new StudentSearchIndex();
+        index.beginLoad();
+        index.load(copies());
+    }
+
+    @Test
+    void refinesWhenEveryPreviousWordIsAPrefixOfANewOne() {
+        assertTrue(StudentSearchIndex.refines(List.of("java"), List.of("jav")));
+        assertTrue(StudentSearchIndex.refines(List.of("java", "sen"), List.of("java")));
+        assertTrue(StudentSearchIndex.refines(List.of("sen", "java"), List.of("java")));
+        assertTrue(StudentSearchIndex.refines(List.of("java"), List.of("java")));
+        assertFalse(StudentSearchIndex.refines(List.of("jav"), List.of("java")));
+        assertFalse(StudentSearchIndex.refines(List.of("python"), List.of("java")));
+        assertFalse(StudentSearchIndex.refines(List.of("java"), List.of("java", "sen")));
+    }
+
+    @Test
+    void typingMoreMatchesAFullSearch() {
+        assertSearches("j", "ja", "jav", "java", "java s", "java se", "java senior");
+        assertSearches("s", "se", "sen", "senior", "senior stu", "senior student my");
+        assertSearches("c", "c+", "c++");
+    }
+
+    @Test
+    void wideningMatchesAFullSearch() {
+        assertSearches("java senior", "java sen", "java", "jav", "j");
+        assertSearches("senior python", "python");
+    }
+
+    @Test
+    void editedQueriesMatchAFullSearch() {
+        assertSearches("java", "jave", "jav", "python", "pyt", "java");
+        assertSearches("java sen", "java jun", "jav jun", "kotlin jun");
+        assertSearches("senior java", "java senior", "senior java"); // the same query in another word order
+    }
+
+    @Test
+    void putClearsTheCaches() {
+        assertSearches("ja", "rust");
+
+        add(8, "Janet Rust", "Senior", "Student", "", "Java", "Rust");
+        index.put(students.get(8));
+        // "jav" refines "ja", and "rust" was cached before Janet existed
+        assertSearches("jav", "rust", "ja");
+
+        Student renamed = students.get(3);
+        renamed.setName("Sam Rust");
+        index.put(renamed);
+        assertSearches("rust", "rus", "sam r");
+    }
+
+    @Test
+    void removeClearsTheCaches() {
+        assertSearches("java", "ja");
+
+        students.remove(1);
+        index.remove(1);
+        assertSearches("java", "java py", "ja", "jane");
+    }
+
+    @Test
+    void renameLanguageClearsTheCaches() {
+        assertSearches("kotlin", "ko", "java");
+
+        rename("Java", "Kotlin");
+        index.renameLanguage("Java", "Kotlin");
+        assertSearches("kotlin", "kot", "ko", "java", "javascript");
+
+        rename("Kotlin", null);
+        index.removeLanguage("Kotlin");
+        assertSearches("k", "kotlin", "ko");
+    }
+
+    /**
+     * Run the queries in order on the shared index and compare each with a fresh index
+     */
+    private void assertSearches(String... queries) {
+        for (String query : queries) {
+            StudentSearchIndex fresh = new StudentSearchIndex();
+            fresh.load(copies());
+            assertEquals(fresh.search(query), index.search(query),
+                    "\"" + query + "\" after " + Arrays.toString(queries));
+        }
+    }
+
+    private void add(int id, String name, String status, String role, String skills, String... languages) {
+        Student student = new Student(id, name, status);
+        student.setRole(role);
+        student.setDbSkills(skills);
+        student.setLanguages(new ArrayList<>(List.of(languages)));
+        students.put(id, student);
+    }
+
+    /**
+     * Apply a language rename (or removal, for a null newName) to the students the test keeps
+     */
+    private void rename(String oldName, String newName) {
+        for (Student student : students.values()) {
+            List<String> languages = new ArrayList<>();
+            for (String language : student.getLanguages()) {
+                String renamed = language.equalsIgnoreCase(oldName) ? newName : language;
+                if (renamed != null && languages.stream().noneMatch(renamed::equalsIgnoreCase)) {
+                    languages.add(renamed);
+                }
+            }
+            student.setLanguages(languages);
+        }
+    }
+
+    private List<Student> copies() {
+        List<Student> copies = new ArrayList<>();
+        for (Student student : students.values()) {
+            copies.add(new Student(student));
+        }
+        return copies;
+    }
+}